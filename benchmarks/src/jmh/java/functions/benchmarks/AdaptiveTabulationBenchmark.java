@@ -0,0 +1,66 @@
+package functions.benchmarks;
+
+import functions.AdaptiveTabulatedFunction;
+import functions.TabulatedFunction;
+import functions.TabulatedFunctions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleUnaryOperator;
+
+// Построение таблицы sin(x) и 10000 запросов к ней: ленивое уточнение под запросы
+// против плотной равномерной сетки с той же погрешностью (шаг около 0.01)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdaptiveTabulationBenchmark {
+    private static final int QUERIES_COUNT = 10000;
+    private static final double TOLERANCE = 1e-5;
+    private static final int DENSE_POINTS_COUNT = 100001;
+    private static final DoubleUnaryOperator SINE = Math::sin;
+
+    @Param({"sequential", "random", "clustered"})
+    public String pattern;
+
+    private double[] xs;
+
+    @Setup
+    public void setUp() {
+        xs = BenchmarkFunctions.queries(pattern, QUERIES_COUNT, 42);
+    }
+
+    @Benchmark
+    public double adaptive() {
+        TabulatedFunction function = new AdaptiveTabulatedFunction(SINE,
+                BenchmarkFunctions.LEFT_X, BenchmarkFunctions.RIGHT_X, 101, DENSE_POINTS_COUNT, TOLERANCE);
+        return evaluate(function);
+    }
+
+    @Benchmark
+    public double dense() {
+        TabulatedFunction function = TabulatedFunctions.tabulate(SINE,
+                BenchmarkFunctions.LEFT_X, BenchmarkFunctions.RIGHT_X, DENSE_POINTS_COUNT, 1);
+        return evaluate(function);
+    }
+
+    private double evaluate(TabulatedFunction function) {
+        double sum = 0;
+        for (double x : xs) {
+            sum += function.getFunctionValue(x);
+        }
+        return sum;
+    }
+}
\ No newline at end of file
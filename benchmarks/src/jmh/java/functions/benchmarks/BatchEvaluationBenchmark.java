@@ -0,0 +1,77 @@
+package functions.benchmarks;
+
+import functions.TabulatedFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Пакетное вычисление getFunctionValues против поэлементного вызова getFunctionValue;
+// время указано на один аргумент
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchEvaluationBenchmark {
+    private static final int BATCH = 65536;
+
+    @Param({"array", "linkedList", "skipList", "unrolledList"})
+    public String implementation;
+
+    @Param({"1000", "100000"})
+    public int pointsCount;
+
+    @Param({"uniform", "nonUniform"})
+    public String grid;
+
+    private TabulatedFunction function;
+    private double[] sorted;
+    private double[] unsorted;
+    private double[] out;
+
+    @Setup
+    public void setUp() {
+        function = BenchmarkFunctions.create(implementation, pointsCount);
+        if (grid.equals("nonUniform")) {
+            BenchmarkFunctions.breakUniformGrid(function);
+        }
+        sorted = BenchmarkFunctions.queries("sequential", BATCH, 1);
+        unsorted = BenchmarkFunctions.queries("random", BATCH, 1);
+        out = new double[BATCH];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public double[] scalarSorted() {
+        for (int i = 0; i < BATCH; i++) {
+            out[i] = function.getFunctionValue(sorted[i]);
+        }
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public double[] batchSorted() {
+        function.getFunctionValues(sorted, out);
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public double[] batchUnsorted() {
+        function.getFunctionValues(unsorted, out);
+        return out;
+    }
+}
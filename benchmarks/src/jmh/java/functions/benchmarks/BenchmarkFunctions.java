@@ -0,0 +1,103 @@
+package functions.benchmarks;
+
+import functions.ArrayTabulatedFunction;
+import functions.FunctionPoint;
+import functions.InappropriateFunctionPointException;
+import functions.LinkedListTabulatedFunction;
+import functions.SkipListTabulatedFunction;
+import functions.TabulatedFunction;
+import functions.UnrolledLinkedListTabulatedFunction;
+
+import java.util.SplittableRandom;
+
+// Общие средства подготовки данных для бенчмарков
+final class BenchmarkFunctions {
+    static final double LEFT_X = 0;
+    static final double RIGHT_X = 1000;
+
+    private BenchmarkFunctions() {
+    }
+
+    // Значения sin(x) в узлах равномерной сетки
+    static double[] sineValues(int pointsCount) {
+        double[] values = new double[pointsCount];
+        double step = (RIGHT_X - LEFT_X) / (pointsCount - 1);
+        for (int i = 0; i < pointsCount; i++) {
+            values[i] = Math.sin(LEFT_X + i * step);
+        }
+        return values;
+    }
+
+    // Функция sin(x) на равномерной сетке в выбранной реализации
+    static TabulatedFunction create(String implementation, int pointsCount) {
+        double[] values = sineValues(pointsCount);
+        switch (implementation) {
+            case "array":
+                return new ArrayTabulatedFunction(LEFT_X, RIGHT_X, values);
+            case "linkedList":
+                return new LinkedListTabulatedFunction(LEFT_X, RIGHT_X, values);
+            case "skipList":
+                return new SkipListTabulatedFunction(LEFT_X, RIGHT_X, values);
+            case "unrolledList":
+                return new UnrolledLinkedListTabulatedFunction(LEFT_X, RIGHT_X, values);
+            default:
+                throw new IllegalArgumentException("Неизвестная реализация: " + implementation);
+        }
+    }
+
+    // Нарушение равномерности сетки: точка между первыми двумя узлами
+    static void breakUniformGrid(TabulatedFunction function) {
+        double x = (function.getPointX(0) + function.getPointX(1)) / 2;
+        try {
+            function.addPoint(new FunctionPoint(x, 0));
+        } catch (InappropriateFunctionPointException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Аргументы запросов по шаблону доступа:
+    // sequential - по возрастанию через всю область определения,
+    // random - равномерно случайные,
+    // clustered - случайные в узком окне (1% области), окно изредка сдвигается
+    static double[] queries(String pattern, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double width = RIGHT_X - LEFT_X;
+        double[] xs = new double[count];
+        switch (pattern) {
+            case "sequential":
+                for (int i = 0; i < count; i++) {
+                    xs[i] = LEFT_X + width * i / count;
+                }
+                break;
+            case "random":
+                for (int i = 0; i < count; i++) {
+                    xs[i] = LEFT_X + width * random.nextDouble();
+                }
+                break;
+            case "clustered":
+                double window = width / 100;
+                double start = LEFT_X;
+                for (int i = 0; i < count; i++) {
+                    if (i % 256 == 0) {
+                        start = LEFT_X + (width - window) * random.nextDouble();
+                    }
+                    xs[i] = start + window * random.nextDouble();
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Неизвестный шаблон доступа: " + pattern);
+        }
+        return xs;
+    }
+
+    // Номера точек по тому же шаблону доступа
+    static int[] indices(String pattern, int count, int pointsCount, long seed) {
+        double[] xs = queries(pattern, count, seed);
+        int[] result = new int[count];
+        for (int i = 0; i < count; i++) {
+            int index = (int) ((xs[i] - LEFT_X) / (RIGHT_X - LEFT_X) * (pointsCount - 1));
+            result[i] = Math.min(Math.max(index, 0), pointsCount - 1);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,84 @@
+package functions.benchmarks;
+
+import functions.ArrayTabulatedFunction;
+import functions.CompressedTabulatedFunction;
+import functions.TabulatedFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Сжатое представление против массивов: скорость полного декодирования
+// (время на одну точку) и вычисления в случайных точках. Степень сжатия
+// печатается при подготовке данных
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressedFunctionBenchmark {
+    private static final int POINTS = 1 << 20;
+    private static final int QUERIES = 4096;
+
+    @Param({"array", "compressed"})
+    public String implementation;
+
+    // smooth - sin(x) в полной точности, sensor - те же значения, округленные до 0.001
+    @Param({"smooth", "sensor"})
+    public String data;
+
+    @Param({"uniform", "nonUniform"})
+    public String grid;
+
+    private TabulatedFunction function;
+    private double[] xs;
+    private double[] out;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        double[] values = new double[POINTS];
+        double step = (BenchmarkFunctions.RIGHT_X - BenchmarkFunctions.LEFT_X) / (POINTS - 1);
+        for (int i = 0; i < POINTS; i++) {
+            double y = Math.sin(BenchmarkFunctions.LEFT_X + i * step);
+            values[i] = data.equals("sensor") ? Math.round(y * 1000) / 1000.0 : y;
+        }
+        TabulatedFunction source = new ArrayTabulatedFunction(BenchmarkFunctions.LEFT_X, BenchmarkFunctions.RIGHT_X, values);
+        if (grid.equals("nonUniform")) {
+            BenchmarkFunctions.breakUniformGrid(source);
+        }
+        if (implementation.equals("compressed")) {
+            CompressedTabulatedFunction compressed = new CompressedTabulatedFunction(source);
+            System.out.println(compressed);
+            function = compressed;
+        } else {
+            function = source;
+        }
+        xs = BenchmarkFunctions.queries("random", QUERIES, 3);
+        out = new double[function.getPointsCount()];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public double[] decode() {
+        function.copyYs(out, 0);
+        return out;
+    }
+
+    @Benchmark
+    public double randomValue() {
+        cursor = (cursor + 1) & (QUERIES - 1);
+        return function.getFunctionValue(xs[cursor]);
+    }
+}
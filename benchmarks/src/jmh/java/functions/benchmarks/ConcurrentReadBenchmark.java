@@ -0,0 +1,97 @@
+package functions.benchmarks;
+
+import functions.ConcurrentTabulatedFunction;
+import functions.CopyOnWriteTabulatedFunction;
+import functions.TabulatedFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Пропускная способность потокобезопасных оберток при росте числа читателей
+// и при чтении на фоне одного писателя
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentReadBenchmark {
+    @Param({"array", "linkedList"})
+    public String implementation;
+
+    @Param({"stampedLock", "copyOnWrite"})
+    public String wrapper;
+
+    @Param({"1000", "100000"})
+    public int pointsCount;
+
+    private TabulatedFunction function;
+
+    @Setup
+    public void setUp() {
+        TabulatedFunction base = BenchmarkFunctions.create(implementation, pointsCount);
+        function = wrapper.equals("stampedLock")
+                ? new ConcurrentTabulatedFunction(base)
+                : new CopyOnWriteTabulatedFunction(base);
+    }
+
+    private double read() {
+        double x = BenchmarkFunctions.LEFT_X
+                + (BenchmarkFunctions.RIGHT_X - BenchmarkFunctions.LEFT_X) * ThreadLocalRandom.current().nextDouble();
+        return function.getFunctionValue(x);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public double readers1() {
+        return read();
+    }
+
+    @Benchmark
+    @Threads(2)
+    public double readers2() {
+        return read();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public double readers4() {
+        return read();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public double readers8() {
+        return read();
+    }
+
+    // Три читателя и один писатель, изменяющий значения в точках
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public double reader() {
+        return read();
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public void writer() {
+        int index = ThreadLocalRandom.current().nextInt(pointsCount);
+        function.setPointY(index, ThreadLocalRandom.current().nextDouble());
+    }
+}
@@ -0,0 +1,59 @@
+package functions.benchmarks;
+
+import functions.ArrayTabulatedFunction;
+import functions.TabulatedFunction;
+import functions.TabulatedFunctions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Сумма двух таблиц с разными сетками: слияние точек одним проходом против
+// прежнего способа - вычисления каждой функции в точках другой через getFunctionValue
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FunctionArithmeticBenchmark {
+    @Param({"array", "linkedList", "skipList"})
+    public String implementation;
+
+    @Param({"1000", "100000"})
+    public int pointsCount;
+
+    private TabulatedFunction f;
+    private TabulatedFunction g;
+
+    @Setup
+    public void setUp() {
+        f = BenchmarkFunctions.create(implementation, pointsCount);
+        g = BenchmarkFunctions.create(implementation, pointsCount + pointsCount / 3);
+    }
+
+    @Benchmark
+    public TabulatedFunction merge() {
+        return TabulatedFunctions.add(f, g);
+    }
+
+    // Значения суммы в точках g (точки f между ними теряются)
+    @Benchmark
+    public TabulatedFunction sampled() {
+        int count = g.getPointsCount();
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = f.getFunctionValue(g.getPointX(i)) + g.getPointY(i);
+        }
+        return new ArrayTabulatedFunction(g.getLeftDomainBorder(), g.getRightDomainBorder(), values);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+package functions.benchmarks;
+
+import functions.TabulatedFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Поиск интервала в ArrayTabulatedFunction: бинарный поиск и прямое вычисление
+// на равномерной сетке против прежнего линейного прохода от первой точки
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntervalSearchBenchmark {
+    private static final int QUERIES = 4096;
+
+    @Param({"1000", "100000", "10000000"})
+    public int pointsCount;
+
+    @Param({"uniform", "nonUniform"})
+    public String grid;
+
+    private TabulatedFunction function;
+    private double[] xValues;
+    private double[] yValues;
+    private double[] xs;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        function = BenchmarkFunctions.create("array", pointsCount);
+        if (grid.equals("nonUniform")) {
+            BenchmarkFunctions.breakUniformGrid(function);
+        }
+        int count = function.getPointsCount();
+        xValues = new double[count];
+        yValues = new double[count];
+        for (int i = 0; i < count; i++) {
+            xValues[i] = function.getPointX(i);
+            yValues[i] = function.getPointY(i);
+        }
+        xs = BenchmarkFunctions.queries("random", QUERIES, 7);
+    }
+
+    private double nextX() {
+        cursor = (cursor + 1) & (QUERIES - 1);
+        return xs[cursor];
+    }
+
+    @Benchmark
+    public double getFunctionValue() {
+        return function.getFunctionValue(nextX());
+    }
+
+    // Прежний алгоритм: линейный проход от первой точки
+    @Benchmark
+    public double linearScanBaseline() {
+        double x = nextX();
+        int count = xValues.length;
+        int i = 0;
+        while (i < count - 1 && xValues[i + 1] < x) {
+            i++;
+        }
+        if (i == count - 1) {
+            return yValues[i];
+        }
+        return yValues[i] + (yValues[i + 1] - yValues[i]) * (x - xValues[i]) / (xValues[i + 1] - xValues[i]);
+    }
+}
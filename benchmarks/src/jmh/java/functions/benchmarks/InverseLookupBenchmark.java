@@ -0,0 +1,93 @@
+package functions.benchmarks;
+
+import functions.ArrayTabulatedFunction;
+import functions.IndexedTabulatedFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Поиск X по значению монотонной функции x + sin(x) для 1000 упорядоченных значений:
+// бинарный поиск по индексу, пакетный проход и перебор точек
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InverseLookupBenchmark {
+    private static final int QUERIES_COUNT = 1000;
+
+    @Param({"1000", "100000"})
+    public int pointsCount;
+
+    private IndexedTabulatedFunction function;
+    private double[] values;
+    private double[] out;
+
+    @Setup
+    public void setUp() {
+        double[] ys = BenchmarkFunctions.sineValues(pointsCount);
+        double step = (BenchmarkFunctions.RIGHT_X - BenchmarkFunctions.LEFT_X) / (pointsCount - 1);
+        for (int i = 0; i < pointsCount; i++) {
+            ys[i] += BenchmarkFunctions.LEFT_X + i * step;
+        }
+        function = new IndexedTabulatedFunction(
+                new ArrayTabulatedFunction(BenchmarkFunctions.LEFT_X, BenchmarkFunctions.RIGHT_X, ys));
+
+        SplittableRandom random = new SplittableRandom(42);
+        values = new double[QUERIES_COUNT];
+        double low = ys[0];
+        double width = ys[pointsCount - 1] - low;
+        for (int i = 0; i < QUERIES_COUNT; i++) {
+            values[i] = low + width * i / QUERIES_COUNT + random.nextDouble() * width / QUERIES_COUNT;
+        }
+        out = new double[QUERIES_COUNT];
+        function.findX(values[0]);
+    }
+
+    @Benchmark
+    public double[] findX() {
+        for (int i = 0; i < QUERIES_COUNT; i++) {
+            out[i] = function.findX(values[i]);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public double[] findXs() {
+        function.findXs(values, 0, out, 0, QUERIES_COUNT);
+        return out;
+    }
+
+    // Прежний способ: перебор точек до первого интервала, содержащего значение
+    @Benchmark
+    public double[] scan() {
+        int count = function.getPointsCount();
+        for (int i = 0; i < QUERIES_COUNT; i++) {
+            double y = values[i];
+            double x = Double.NaN;
+            for (int k = 0; k < count - 1; k++) {
+                double y1 = function.getPointY(k);
+                double y2 = function.getPointY(k + 1);
+                if (y1 <= y && y <= y2) {
+                    double x1 = function.getPointX(k);
+                    x = x1 + (y - y1) * (function.getPointX(k + 1) - x1) / (y2 - y1);
+                    break;
+                }
+            }
+            out[i] = x;
+        }
+        return out;
+    }
+}
\ No newline at end of file
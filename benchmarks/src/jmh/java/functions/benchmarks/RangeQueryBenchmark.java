@@ -0,0 +1,78 @@
+package functions.benchmarks;
+
+import functions.IndexedTabulatedFunction;
+import functions.TabulatedFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Интеграл по случайному отрезку вместе с изменением Y случайной точки:
+// индекс (дерево Фенвика) против суммирования трапеций проходом по точкам
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RangeQueryBenchmark {
+    @Param({"1000", "100000"})
+    public int pointsCount;
+
+    private TabulatedFunction function;
+    private IndexedTabulatedFunction indexed;
+
+    @Setup
+    public void setUp() {
+        function = BenchmarkFunctions.create("array", pointsCount);
+        indexed = new IndexedTabulatedFunction(BenchmarkFunctions.create("array", pointsCount));
+    }
+
+    @Benchmark
+    public double indexed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        indexed.setPointY(random.nextInt(pointsCount), random.nextDouble());
+        double left = indexed.getLeftDomainBorder();
+        double width = indexed.getRightDomainBorder() - left;
+        return indexed.integrate(left + random.nextDouble() * width, left + random.nextDouble() * width);
+    }
+
+    // Сумма трапеций между отрезком и ближайшими точками, концы - через getFunctionValue
+    @Benchmark
+    public double scan() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        function.setPointY(random.nextInt(pointsCount), random.nextDouble());
+        double left = function.getLeftDomainBorder();
+        double width = function.getRightDomainBorder() - left;
+        double a = left + random.nextDouble() * width;
+        double b = left + random.nextDouble() * width;
+        if (a > b) {
+            double t = a;
+            a = b;
+            b = t;
+        }
+        double sum = 0;
+        double prevX = a;
+        double prevY = function.getFunctionValue(a);
+        for (int i = 0; i < pointsCount; i++) {
+            double x = function.getPointX(i);
+            if (x > a && x < b) {
+                double y = function.getPointY(i);
+                sum += (prevY + y) / 2 * (x - prevX);
+                prevX = x;
+                prevY = y;
+            }
+        }
+        return sum + (prevY + function.getFunctionValue(b)) / 2 * (b - prevX);
+    }
+}
\ No newline at end of file
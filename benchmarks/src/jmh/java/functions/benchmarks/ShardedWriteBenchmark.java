@@ -0,0 +1,95 @@
+package functions.benchmarks;
+
+import functions.ArrayTabulatedFunction;
+import functions.ConcurrentTabulatedFunction;
+import functions.FunctionPoint;
+import functions.InappropriateFunctionPointException;
+import functions.ShardedTabulatedFunction;
+import functions.TabulatedFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Несколько писателей в разных местах одной таблицы: одна блокировка на всю
+// функцию против шардов со своими блокировками. Таблица пересоздается перед
+// каждой итерацией, так как добавления ее растят
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShardedWriteBenchmark {
+    @Param({"stampedLock", "sharded"})
+    public String implementation;
+
+    @Param({"100000"})
+    public int pointsCount;
+
+    private TabulatedFunction function;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        double[] values = BenchmarkFunctions.sineValues(pointsCount);
+        function = implementation.equals("sharded")
+                ? new ShardedTabulatedFunction(BenchmarkFunctions.LEFT_X, BenchmarkFunctions.RIGHT_X, values)
+                : new ConcurrentTabulatedFunction(
+                        new ArrayTabulatedFunction(BenchmarkFunctions.LEFT_X, BenchmarkFunctions.RIGHT_X, values));
+    }
+
+    private static double randomX() {
+        return BenchmarkFunctions.LEFT_X
+                + (BenchmarkFunctions.RIGHT_X - BenchmarkFunctions.LEFT_X) * ThreadLocalRandom.current().nextDouble();
+    }
+
+    private void insert() {
+        try {
+            function.addPoint(new FunctionPoint(randomX(), ThreadLocalRandom.current().nextDouble()));
+        } catch (InappropriateFunctionPointException e) {
+            // Совпадение X со случайной точкой практически невозможно
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void update() {
+        int index = ThreadLocalRandom.current().nextInt(pointsCount);
+        function.setPointY(index, ThreadLocalRandom.current().nextDouble());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void add() {
+        insert();
+    }
+
+    // Два читателя и два писателя, добавляющих точки
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(2)
+    public double reader() {
+        return function.getFunctionValue(randomX());
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(2)
+    public void writer() {
+        insert();
+    }
+}
\ No newline at end of file
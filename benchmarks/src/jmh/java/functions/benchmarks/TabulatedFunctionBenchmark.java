@@ -0,0 +1,95 @@
+package functions.benchmarks;
+
+import functions.FunctionPoint;
+import functions.InappropriateFunctionPointException;
+import functions.TabulatedFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Основные операции всех реализаций при разном числе точек и шаблонах доступа
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TabulatedFunctionBenchmark {
+    private static final int QUERIES = 4096;
+    private static final int SEQUENTIAL_RUN = 1024;
+
+    @Param({"array", "linkedList", "skipList", "unrolledList"})
+    public String implementation;
+
+    @Param({"1000", "100000", "10000000"})
+    public int pointsCount;
+
+    @Param({"sequential", "random", "clustered"})
+    public String pattern;
+
+    private TabulatedFunction function;
+    private double[] xs;
+    private int[] indices;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        function = BenchmarkFunctions.create(implementation, pointsCount);
+        xs = BenchmarkFunctions.queries(pattern, QUERIES, 42);
+        indices = BenchmarkFunctions.indices(pattern, QUERIES, pointsCount, 42);
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (QUERIES - 1);
+        return cursor;
+    }
+
+    @Benchmark
+    public double getFunctionValue() {
+        return function.getFunctionValue(xs[next()]);
+    }
+
+    @Benchmark
+    public FunctionPoint getPoint() {
+        return function.getPoint(indices[next()]);
+    }
+
+    @Benchmark
+    public void setPointY() {
+        int k = next();
+        function.setPointY(indices[k], xs[k]);
+    }
+
+    // Вставка точки и удаление точки рядом с ней: размер функции не меняется
+    @Benchmark
+    public void addAndDeletePoint() throws InappropriateFunctionPointException {
+        int k = next();
+        int index = Math.min(Math.max(indices[k], 1), function.getPointsCount() - 2);
+        double x = (function.getPointX(index) + function.getPointX(index + 1)) / 2;
+        function.addPoint(new FunctionPoint(x, 0));
+        function.deletePoint(index + 1);
+    }
+
+    // Последовательный обход точек по номеру, начиная с позиции по шаблону доступа
+    @Benchmark
+    @OperationsPerInvocation(SEQUENTIAL_RUN)
+    public void sequentialIndexAccess(Blackhole blackhole) {
+        int start = Math.max(Math.min(indices[next()], pointsCount - SEQUENTIAL_RUN), 0);
+        for (int i = start; i < start + SEQUENTIAL_RUN && i < pointsCount; i++) {
+            blackhole.consume(function.getPointX(i));
+            blackhole.consume(function.getPointY(i));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package functions.benchmarks;
+
+import functions.FunctionPoint;
+import functions.InappropriateFunctionPointException;
+import functions.TabulatedFunction;
+import functions.UnrolledLinkedListTabulatedFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Выбор размера блока развернутого списка: полный обход, вычисление в случайных
+// точках и вставка с удалением. Для сравнения те же операции на массиве и списке
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UnrolledListBenchmark {
+    private static final int QUERIES = 4096;
+
+    // unrolledList:N - развернутый список с блоками по N точек
+    @Param({"array", "linkedList", "unrolledList:16", "unrolledList:64", "unrolledList:256"})
+    public String implementation;
+
+    @Param({"1000", "100000"})
+    public int pointsCount;
+
+    private TabulatedFunction function;
+    private double[] xs;
+    private int[] indices;
+    private int cursor;
+    private double sum;
+
+    @Setup
+    public void setUp() {
+        if (implementation.startsWith("unrolledList:")) {
+            int blockSize = Integer.parseInt(implementation.substring("unrolledList:".length()));
+            function = new UnrolledLinkedListTabulatedFunction(BenchmarkFunctions.LEFT_X, BenchmarkFunctions.RIGHT_X,
+                    BenchmarkFunctions.sineValues(pointsCount), blockSize);
+        } else {
+            function = BenchmarkFunctions.create(implementation, pointsCount);
+        }
+        xs = BenchmarkFunctions.queries("random", QUERIES, 5);
+        indices = BenchmarkFunctions.indices("random", QUERIES, pointsCount, 5);
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (QUERIES - 1);
+        return cursor;
+    }
+
+    // Полный обход точек
+    @Benchmark
+    public double scan() {
+        sum = 0;
+        function.forEachPoint((x, y) -> sum += y);
+        return sum;
+    }
+
+    @Benchmark
+    public double randomValue() {
+        return function.getFunctionValue(xs[next()]);
+    }
+
+    // Вставка точки и удаление точки рядом с ней: размер функции не меняется
+    @Benchmark
+    public void addAndDeletePoint() throws InappropriateFunctionPointException {
+        int k = next();
+        int index = Math.min(Math.max(indices[k], 1), function.getPointsCount() - 2);
+        double x = (function.getPointX(index) + function.getPointX(index + 1)) / 2;
+        function.addPoint(new FunctionPoint(x, 0));
+        function.deletePoint(index + 1);
+    }
+}
@@ -0,0 +1,68 @@
+package functions.benchmarks;
+
+import functions.TabulatedFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Пакетное вычисление на массивах с векторным ядром и без него. Ядро выбирается
+// при загрузке классов, поэтому варианты запускаются в разных JVM: с модулем
+// jdk.incubator.vector и с тем же модулем, но отключенным свойством functions.vector
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class VectorKernelBenchmark {
+    private static final int BATCH = 65536;
+
+    @Param({"1000", "100000"})
+    public int pointsCount;
+
+    @Param({"uniform", "nonUniform"})
+    public String grid;
+
+    @Param({"sequential", "random"})
+    public String pattern;
+
+    private TabulatedFunction function;
+    private double[] xs;
+    private double[] out;
+
+    @Setup
+    public void setUp() {
+        function = BenchmarkFunctions.create("array", pointsCount);
+        if (grid.equals("nonUniform")) {
+            BenchmarkFunctions.breakUniformGrid(function);
+        }
+        xs = BenchmarkFunctions.queries(pattern, BATCH, 1);
+        out = new double[BATCH];
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+    @OperationsPerInvocation(BATCH)
+    public double[] vector() {
+        function.getFunctionValues(xs, out);
+        return out;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "-Dfunctions.vector=false"})
+    @OperationsPerInvocation(BATCH)
+    public double[] scalar() {
+        function.getFunctionValues(xs, out);
+        return out;
+    }
+}
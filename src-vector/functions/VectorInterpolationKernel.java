@@ -0,0 +1,53 @@
+package functions;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Векторная интерполяция на jdk.incubator.vector. Формула та же, что в скалярном
+// коде (fma с тем же округлением, что у Math.fma, и значения в узлах с точностью
+// EPSILON), поэтому результаты совпадают с ним побитно.
+// Данные читаются только подряд: сборка по индексам (gather) в C2 из JDK 17
+// приводила к падению JVM, поэтому концы интервалов собирает вызывающий код.
+// Собирается только с --add-modules jdk.incubator.vector (см. build.gradle)
+final class VectorInterpolationKernel implements InterpolationKernel {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final double EPSILON = 1e-10;
+
+    public void interpolate(double[] x1, double[] y1, double[] slope, double[] x2, double[] y2,
+                            double leftX, double rightX, double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        int k = 0;
+        int bound = SPECIES.loopBound(length);
+        for (; k < bound; k += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, xs, xsOffset + k);
+            DoubleVector left = DoubleVector.fromArray(SPECIES, x1, k);
+            DoubleVector right = DoubleVector.fromArray(SPECIES, x2, k);
+            DoubleVector leftY = DoubleVector.fromArray(SPECIES, y1, k);
+            DoubleVector rightY = DoubleVector.fromArray(SPECIES, y2, k);
+            DoubleVector slopes = DoubleVector.fromArray(SPECIES, slope, k);
+
+            // Левый узел проверяется последним: он важнее правого, как в скалярном коде
+            DoubleVector y = slopes.fma(x.sub(left), leftY);
+            y = y.blend(rightY, right.sub(x).abs().compare(VectorOperators.LT, EPSILON));
+            y = y.blend(leftY, left.sub(x).abs().compare(VectorOperators.LT, EPSILON));
+            VectorMask<Double> outside = x.compare(VectorOperators.LT, leftX)
+                    .or(x.compare(VectorOperators.GT, rightX));
+            y.blend(Double.NaN, outside).intoArray(out, outOffset + k);
+        }
+
+        // Остаток пакета, не заполняющий вектор целиком
+        for (; k < length; k++) {
+            double x = xs[xsOffset + k];
+            if (x < leftX || x > rightX) {
+                out[outOffset + k] = Double.NaN;
+            } else if (Math.abs(x1[k] - x) < EPSILON) {
+                out[outOffset + k] = y1[k];
+            } else if (Math.abs(x2[k] - x) < EPSILON) {
+                out[outOffset + k] = y2[k];
+            } else {
+                out[outOffset + k] = Math.fma(slope[k], x - x1[k], y1[k]);
+            }
+        }
+    }
+}
\ No newline at end of file
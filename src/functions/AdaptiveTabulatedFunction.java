@@ -0,0 +1,340 @@
+package functions;
+
+import java.util.function.DoubleUnaryOperator;
+
+public class AdaptiveTabulatedFunction implements TabulatedFunction {
+    // Ленивое табулирование функции: сначала строится грубая сетка, а интервал, в
+    // который попал запрос, уточняется делением пополам, пока значение функции в его
+    // середине отличается от линейной интерполяции больше допустимой погрешности.
+    // Точки добавляются обычным addPoint табулированной функции на массиве, поэтому
+    // память и время первого запроса зависят от запросов, а не от ширины области.
+    // Число точек ограничено: при заполнении вытесняется точка уточнения, к интервалам
+    // которой дольше всего не обращались. Точки грубой сетки и добавленные вручную
+    // не вытесняются. Вычисление значения изменяет функцию, поэтому класс не
+    // потокобезопасен
+    private final DoubleUnaryOperator function;
+    private final ArrayTabulatedFunction points;
+    private final int maxPointsCount;
+    private final double tolerance;
+
+    // Сведения о точках по их номерам: узел в списке вытеснения (null - точка не
+    // вытесняется) и признак проверенного интервала, начинающегося в точке
+    private RefinementNode[] nodes;
+    private boolean[] settled;
+
+    // Точки уточнения в порядке обращений: после head - самая давняя, перед head -
+    // самая недавняя. Обращение переносит узел в конец за O(1)
+    private final RefinementNode head = new RefinementNode(Double.NaN);
+
+    private static final double EPSILON = 1e-10;
+
+    private static class RefinementNode {
+        private final double x;
+        private RefinementNode prev = this;
+        private RefinementNode next = this;
+
+        RefinementNode(double x) {
+            this.x = x;
+        }
+
+        void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = this;
+            next = this;
+        }
+
+        void insertBefore(RefinementNode node) {
+            prev = node.prev;
+            next = node;
+            node.prev.next = this;
+            node.prev = this;
+        }
+    }
+
+    public AdaptiveTabulatedFunction(DoubleUnaryOperator function, double leftX, double rightX,
+                                     int initialPointsCount, int maxPointsCount, double tolerance) {
+        this.points = new ArrayTabulatedFunction(leftX, rightX, initialPointsCount);
+        if (maxPointsCount < initialPointsCount) {
+            throw new IllegalArgumentException("Предельное число точек меньше начального");
+        }
+        if (!(tolerance >= 0)) {
+            throw new IllegalArgumentException("Допустимая погрешность должна быть неотрицательным числом");
+        }
+        this.function = function;
+        this.maxPointsCount = maxPointsCount;
+        this.tolerance = tolerance;
+
+        this.nodes = new RefinementNode[initialPointsCount];
+        this.settled = new boolean[initialPointsCount];
+        for (int i = 0; i < initialPointsCount; i++) {
+            points.setPointY(i, function.applyAsDouble(points.getPointX(i)));
+        }
+    }
+
+    public int getMaxPointsCount() {
+        return maxPointsCount;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    // Уточнение интервала, содержащего x, до допустимой погрешности
+    private void refine(double x) {
+        int i = segment(x);
+        while (true) {
+            touch(i);
+            touch(i + 1);
+            if (settled[i]) {
+                return;
+            }
+            double x1 = points.getPointX(i);
+            double x2 = points.getPointX(i + 1);
+            if (doubleEquals(x1, x) || doubleEquals(x2, x)) {
+                return;
+            }
+            double middle = (x1 + x2) / 2;
+            // Значение в середине сравнивается с интерполяцией; NaN не уточняется
+            double y = function.applyAsDouble(middle);
+            double linear = (points.getPointY(i) + points.getPointY(i + 1)) / 2;
+            if (x2 - x1 < 4 * EPSILON || !(Math.abs(y - linear) > tolerance)) {
+                settled[i] = true;
+                return;
+            }
+
+            if (points.getPointsCount() >= maxPointsCount) {
+                int evicted = coldest(i, i + 1);
+                if (evicted < 0) {
+                    return;
+                }
+                points.deletePoint(evicted);
+                deleteMeta(evicted);
+                if (evicted < i) {
+                    i--;
+                }
+            }
+
+            try {
+                points.addPoint(new FunctionPoint(middle, y));
+            } catch (InappropriateFunctionPointException e) {
+                throw new IllegalStateException(e);
+            }
+            RefinementNode node = new RefinementNode(middle);
+            node.insertBefore(head);
+            insertMeta(i + 1, node);
+            if (x >= middle) {
+                i++;
+            }
+        }
+    }
+
+    // Интервал [x_i, x_(i+1)], содержащий x
+    private int segment(double x) {
+        int low = 0;
+        int high = points.getPointsCount();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (points.getPointX(mid) <= x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return Math.min(Math.max(low - 1, 0), points.getPointsCount() - 2);
+    }
+
+    private boolean doubleEquals(double a, double b) {
+        return Math.abs(a - b) < EPSILON;
+    }
+
+    private void touch(int index) {
+        RefinementNode node = nodes[index];
+        if (node != null) {
+            node.unlink();
+            node.insertBefore(head);
+        }
+    }
+
+    // Точка уточнения с самым давним обращением, кроме концов текущего интервала
+    // (они только что перенесены в конец списка, поэтому просматривается не более
+    // трех узлов); -1, если вытеснять нечего
+    private int coldest(int keepLeft, int keepRight) {
+        for (RefinementNode node = head.next; node != head; node = node.next) {
+            int index = indexOf(node.x);
+            if (index != keepLeft && index != keepRight) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    // Номер точки с заданным X (точки уточнения не сдвигаются, так как измененная
+    // вручную точка закрепляется)
+    private int indexOf(double x) {
+        int index = segment(x);
+        return points.getPointX(index) == x ? index : index + 1;
+    }
+
+    // Сведения о точке, вставленной под номером index: интервалы по обе стороны от
+    // нее еще не проверены
+    private void insertMeta(int index, RefinementNode node) {
+        int count = points.getPointsCount() - 1;
+        if (count == nodes.length) {
+            RefinementNode[] newNodes = new RefinementNode[nodes.length * 2];
+            boolean[] newSettled = new boolean[settled.length * 2];
+            System.arraycopy(nodes, 0, newNodes, 0, count);
+            System.arraycopy(settled, 0, newSettled, 0, count);
+            nodes = newNodes;
+            settled = newSettled;
+        }
+        System.arraycopy(nodes, index, nodes, index + 1, count - index);
+        System.arraycopy(settled, index, settled, index + 1, count - index);
+        nodes[index] = node;
+        settled[index] = false;
+        if (index > 0) {
+            settled[index - 1] = false;
+        }
+    }
+
+    // Сведения об удаленной точке index: соседние интервалы сливаются в непроверенный
+    private void deleteMeta(int index) {
+        if (nodes[index] != null) {
+            nodes[index].unlink();
+        }
+        int count = points.getPointsCount();
+        System.arraycopy(nodes, index + 1, nodes, index, count - index);
+        System.arraycopy(settled, index + 1, settled, index, count - index);
+        nodes[count] = null;
+        if (index > 0) {
+            settled[index - 1] = false;
+        }
+    }
+
+    // Методы интерфейса TabulatedFunction
+
+    public double getLeftDomainBorder() {
+        return points.getLeftDomainBorder();
+    }
+
+    public double getRightDomainBorder() {
+        return points.getRightDomainBorder();
+    }
+
+    public double getFunctionValue(double x) {
+        if (x >= points.getLeftDomainBorder() && x <= points.getRightDomainBorder()) {
+            refine(x);
+        }
+        return points.getFunctionValue(x);
+    }
+
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        if (xsOffset < 0 || outOffset < 0 || length < 0 ||
+                xsOffset > xs.length - length || outOffset > out.length - length) {
+            throw new IndexOutOfBoundsException("Диапазон выходит за границы массива");
+        }
+        for (int k = 0; k < length; k++) {
+            out[outOffset + k] = getFunctionValue(xs[xsOffset + k]);
+        }
+    }
+
+    public int getPointsCount() {
+        return points.getPointsCount();
+    }
+
+    public FunctionPoint getPoint(int index) {
+        return points.getPoint(index);
+    }
+
+    // Измененная вручную точка закрепляется, интервалы около нее проверяются заново
+
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        points.setPoint(index, point);
+        pin(index);
+    }
+
+    public double getPointX(int index) {
+        return points.getPointX(index);
+    }
+
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        points.setPointX(index, x);
+        pin(index);
+    }
+
+    public double getPointY(int index) {
+        return points.getPointY(index);
+    }
+
+    public void setPointY(int index, double y) {
+        points.setPointY(index, y);
+        pin(index);
+    }
+
+    private void pin(int index) {
+        if (nodes[index] != null) {
+            nodes[index].unlink();
+            nodes[index] = null;
+        }
+        settled[index] = false;
+        if (index > 0) {
+            settled[index - 1] = false;
+        }
+    }
+
+    public void forEachPoint(PointConsumer consumer) {
+        points.forEachPoint(consumer);
+    }
+
+    public PointCursor cursor() {
+        return points.cursor();
+    }
+
+    public void copyXs(double[] dest, int destOffset) {
+        points.copyXs(dest, destOffset);
+    }
+
+    public void copyYs(double[] dest, int destOffset) {
+        points.copyYs(dest, destOffset);
+    }
+
+    public void deletePoint(int index) {
+        points.deletePoint(index);
+        deleteMeta(index);
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        points.addPoint(point);
+        insertMeta(indexOf(point.getX()), null);
+    }
+
+    // Добавленные точки находятся совместным проходом по старым и новым X
+    public void addPoints(FunctionPoint[] newPoints) throws InappropriateFunctionPointException {
+        int oldCount = points.getPointsCount();
+        double[] oldXs = new double[oldCount];
+        points.copyXs(oldXs, 0);
+        points.addPoints(newPoints);
+
+        int count = points.getPointsCount();
+        RefinementNode[] newNodes = new RefinementNode[Math.max(count, nodes.length)];
+        boolean[] newSettled = new boolean[newNodes.length];
+        int j = 0;
+        for (int i = 0; i < count; i++) {
+            if (j < oldCount && points.getPointX(i) == oldXs[j]) {
+                newNodes[i] = nodes[j];
+                newSettled[i] = settled[j] && (j + 1 >= oldCount || points.getPointX(i + 1) == oldXs[j + 1]);
+                j++;
+            } else if (i > 0) {
+                newSettled[i - 1] = false;
+            }
+        }
+        nodes = newNodes;
+        settled = newSettled;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveTabulatedFunction [pointsCount=" + points.getPointsCount() +
+                ", maxPointsCount=" + maxPointsCount + ", tolerance=" + tolerance + "]";
+    }
+}
\ No newline at end of file
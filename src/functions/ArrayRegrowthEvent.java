@@ -0,0 +1,23 @@
+package functions;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Событие JFR: расширение массивов ArrayTabulatedFunction при добавлении точек
+@Name("functions.ArrayRegrowth")
+@Label("Array Regrowth")
+@Category("Tabulated Functions")
+@Description("Массивы точек ArrayTabulatedFunction были выделены заново с большей емкостью")
+final class ArrayRegrowthEvent extends Event {
+    @Label("Old Capacity")
+    int oldCapacity;
+
+    @Label("New Capacity")
+    int newCapacity;
+
+    @Label("Points Count")
+    int pointsCount;
+}
\ No newline at end of file
@@ -1,15 +1,48 @@
 package functions;
 
 public class ArrayTabulatedFunction implements TabulatedFunction {
-    private FunctionPoint[] points;
+    // Координаты точек хранятся в двух параллельных массивах примитивов,
+    // объекты FunctionPoint создаются только на границе интерфейса
+    private double[] xValues;
+    private double[] yValues;
     private int pointsCount;
 
+    // Наклоны интервалов: slopes[i] = (y_(i+1) - y_i) / (x_(i+1) - x_i). Пересчитываются
+    // при изменении точек только для затронутых интервалов, поэтому при чтении значение
+    // вычисляется одним fma без деления
+    private double[] slopes;
+
+    // Признак равномерной сетки: пока X не менялись, интервал вычисляется без поиска
+    private boolean uniformGrid;
+    private double gridStep;
+
+    // Массивы отданы снимку (см. snapshot()) и перед изменением должны быть скопированы
+    private boolean shared;
+
     // Вспомогательный метод для сравнения double с учетом машинного эпсилон
     private static final double EPSILON = 1e-10;
     private boolean doubleEquals(double a, double b) {
         return Math.abs(a - b) < EPSILON;
     }
 
+    // Бинарный поиск: индекс первой точки, X которой не меньше заданного (pointsCount, если таких нет)
+    private int lowerBound(double x) {
+        int low = 0;
+        int high = pointsCount;
+        int steps = 0;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xValues[mid] < x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+            steps++;
+        }
+        FunctionInstrumentation.recordSearchSteps(steps);
+        return low;
+    }
+
     // Конструктор 1
     public ArrayTabulatedFunction(double leftX, double rightX, int pointsCount) {
         if (leftX >= rightX) {
@@ -20,55 +53,212 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
         }
 
         this.pointsCount = pointsCount;
-        this.points = new FunctionPoint[pointsCount + 10];
+        this.xValues = new double[pointsCount + 10];
+        this.yValues = new double[pointsCount + 10];
+        this.slopes = new double[pointsCount + 10];
 
         double step = (rightX - leftX) / (pointsCount - 1);
         for (int i = 0; i < pointsCount; i++) {
-            double x = leftX + i * step;
-            points[i] = new FunctionPoint(x, 0);
+            xValues[i] = leftX + i * step;
         }
+        this.uniformGrid = true;
+        this.gridStep = step;
     }
 
     // Конструктор 2
     public ArrayTabulatedFunction(double leftX, double rightX, double[] values) {
         this(leftX, rightX, values.length);
-        for (int i = 0; i < values.length; i++) {
-            points[i].setY(values[i]);
+        System.arraycopy(values, 0, yValues, 0, values.length);
+        updateSlopes(0, pointsCount - 1);
+    }
+
+    // Конструктор для уже проверенных данных (X строго возрастают, точек не менее двух):
+    // массивы используются без копирования
+    ArrayTabulatedFunction(double[] xValues, double[] yValues, int pointsCount, boolean uniformGrid) {
+        this.xValues = xValues;
+        this.yValues = yValues;
+        this.pointsCount = pointsCount;
+        this.uniformGrid = uniformGrid;
+        this.gridStep = (xValues[pointsCount - 1] - xValues[0]) / (pointsCount - 1);
+        this.slopes = new double[xValues.length];
+        updateSlopes(0, pointsCount - 1);
+    }
+
+    // Пересчет наклонов интервалов с номерами из [from, to)
+    private void updateSlopes(int from, int to) {
+        int last = Math.min(to, pointsCount - 1);
+        for (int i = Math.max(from, 0); i < last; i++) {
+            slopes[i] = (yValues[i + 1] - yValues[i]) / (xValues[i + 1] - xValues[i]);
+        }
+    }
+
+    // Неизменяемый снимок текущего состояния за O(1): снимок использует те же массивы,
+    // а копирование откладывается до первого изменения этой функции
+    public ImmutableTabulatedFunction snapshot() {
+        shared = true;
+        return new ImmutableTabulatedFunction(xValues, yValues, slopes, pointsCount, uniformGrid, gridStep);
+    }
+
+    // Копирование массивов, отданных снимку, перед изменением
+    private void ensureExclusive() {
+        if (shared) {
+            double[] newX = new double[xValues.length];
+            double[] newY = new double[yValues.length];
+            double[] newSlopes = new double[slopes.length];
+            System.arraycopy(xValues, 0, newX, 0, pointsCount);
+            System.arraycopy(yValues, 0, newY, 0, pointsCount);
+            System.arraycopy(slopes, 0, newSlopes, 0, pointsCount);
+            xValues = newX;
+            yValues = newY;
+            slopes = newSlopes;
+            shared = false;
         }
     }
 
     // Методы интерфейса TabulatedFunction
     public double getLeftDomainBorder() {
-        return points[0].getX();
+        return xValues[0];
     }
 
     public double getRightDomainBorder() {
-        return points[pointsCount - 1].getX();
+        return xValues[pointsCount - 1];
     }
 
     public double getFunctionValue(double x) {
+        FunctionInstrumentation.recordEvaluations(1);
         if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
             return Double.NaN;
         }
 
-        int i = 0;
-        while (i < pointsCount - 1 && points[i + 1].getX() < x) {
+        return interpolate(findInterval(x), x);
+    }
+
+    // Левый конец интервала: последняя точка с X меньше заданного (или первая точка)
+    private int findInterval(double x) {
+        if (!uniformGrid) {
+            return Math.max(lowerBound(x) - 1, 0);
+        }
+
+        // На равномерной сетке номер интервала вычисляется напрямую,
+        // поправка нужна только из-за погрешности округления
+        int i = (int) ((x - xValues[0]) / gridStep);
+        if (i > pointsCount - 2) {
+            i = pointsCount - 2;
+        }
+        int steps = 1;
+        while (i > 0 && xValues[i] >= x) {
+            i--;
+            steps++;
+        }
+        while (i < pointsCount - 2 && xValues[i + 1] < x) {
             i++;
+            steps++;
+        }
+        FunctionInstrumentation.recordSearchSteps(steps);
+        return i;
+    }
+
+    // Значение на интервале [x_i, x_(i+1)], x лежит в области определения. Вблизи
+    // узла (с точностью EPSILON) возвращается значение в узле, как в реализациях
+    // на списках: fma в узле с бесконечным или неопределенным наклоном дает NaN
+    private double interpolate(int i, double x) {
+        if (doubleEquals(xValues[i], x)) {
+            return yValues[i];
+        }
+        if (doubleEquals(xValues[i + 1], x)) {
+            return yValues[i + 1];
         }
+        return Math.fma(slopes[i], x - xValues[i], yValues[i]);
+    }
 
-        if (doubleEquals(points[i].getX(), x)) {
-            return points[i].getY();
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        if (xsOffset < 0 || outOffset < 0 || length < 0 ||
+                xsOffset > xs.length - length || outOffset > out.length - length) {
+            throw new IndexOutOfBoundsException("Диапазон выходит за границы массива");
         }
-        if (i < pointsCount - 1 && doubleEquals(points[i + 1].getX(), x)) {
-            return points[i + 1].getY();
+
+        if (length >= InterpolationKernel.MIN_LENGTH && InterpolationKernel.VECTOR != null) {
+            evaluateVectorized(xs, xsOffset, out, outOffset, length);
+            return;
         }
 
-        double x1 = points[i].getX();
-        double y1 = points[i].getY();
-        double x2 = points[i + 1].getX();
-        double y2 = points[i + 1].getY();
+        if (!isSorted(xs, xsOffset, length)) {
+            for (int k = 0; k < length; k++) {
+                out[outOffset + k] = getFunctionValue(xs[xsOffset + k]);
+            }
+            return;
+        }
 
-        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+        // Аргументы упорядочены: индекс интервала только растет, поэтому
+        // точки функции просматриваются одним проходом вместе с аргументами
+        double leftX = xValues[0];
+        double rightX = xValues[pointsCount - 1];
+        int i = 0;
+        for (int k = 0; k < length; k++) {
+            double x = xs[xsOffset + k];
+            if (x < leftX || x > rightX) {
+                out[outOffset + k] = Double.NaN;
+                continue;
+            }
+            while (i < pointsCount - 2 && xValues[i + 1] < x) {
+                i++;
+            }
+            out[outOffset + k] = interpolate(i, x);
+        }
+        FunctionInstrumentation.recordEvaluations(length);
+        FunctionInstrumentation.recordSearchSteps(i);
+    }
+
+    // Вычисление векторным ядром порциями: для каждого аргумента ищется интервал (для
+    // упорядоченных аргументов одним проходом, иначе поиском), его концы копируются
+    // в плотные буферы, после чего ядро обрабатывает всю порцию
+    private void evaluateVectorized(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        boolean sorted = isSorted(xs, xsOffset, length);
+        double leftX = xValues[0];
+        double rightX = xValues[pointsCount - 1];
+        int capacity = Math.min(length, InterpolationKernel.CHUNK);
+        double[] x1 = new double[capacity];
+        double[] y1 = new double[capacity];
+        double[] slope = new double[capacity];
+        double[] x2 = new double[capacity];
+        double[] y2 = new double[capacity];
+        int i = 0;
+        for (int from = 0; from < length; from += capacity) {
+            int chunk = Math.min(capacity, length - from);
+            for (int k = 0; k < chunk; k++) {
+                double x = xs[xsOffset + from + k];
+                int interval;
+                if (!(x >= leftX && x <= rightX)) {
+                    interval = 0; // Значение все равно будет NaN
+                } else if (sorted) {
+                    while (i < pointsCount - 2 && xValues[i + 1] < x) {
+                        i++;
+                    }
+                    interval = i;
+                } else {
+                    interval = findInterval(x);
+                }
+                x1[k] = xValues[interval];
+                y1[k] = yValues[interval];
+                slope[k] = slopes[interval];
+                x2[k] = xValues[interval + 1];
+                y2[k] = yValues[interval + 1];
+            }
+            InterpolationKernel.VECTOR.interpolate(x1, y1, slope, x2, y2, leftX, rightX,
+                    xs, xsOffset + from, out, outOffset + from, chunk);
+        }
+        FunctionInstrumentation.recordEvaluations(length);
+        FunctionInstrumentation.recordSearchSteps(i);
+    }
+
+    // Проверка, что аргументы идут по неубыванию (NaN нарушает порядок)
+    private static boolean isSorted(double[] xs, int offset, int length) {
+        for (int k = offset + 1; k < offset + length; k++) {
+            if (!(xs[k - 1] <= xs[k])) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public int getPointsCount() {
@@ -79,7 +269,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException(index);
         }
-        return new FunctionPoint(points[index]);
+        return new FunctionPoint(xValues[index], yValues[index]);
     }
 
     public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
@@ -88,19 +278,25 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
         }
 
         double newX = point.getX();
-        if ((index > 0 && newX <= points[index - 1].getX()) ||
-                (index < pointsCount - 1 && newX >= points[index + 1].getX())) {
+        if ((index > 0 && newX <= xValues[index - 1]) ||
+                (index < pointsCount - 1 && newX >= xValues[index + 1])) {
             throw new InappropriateFunctionPointException("Нарушение порядка точек по X");
         }
 
-        points[index] = new FunctionPoint(point);
+        ensureExclusive();
+        if (xValues[index] != newX) {
+            uniformGrid = false;
+        }
+        xValues[index] = newX;
+        yValues[index] = point.getY();
+        updateSlopes(index - 1, index + 1);
     }
 
     public double getPointX(int index) {
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException(index);
         }
-        return points[index].getX();
+        return xValues[index];
     }
 
     public void setPointX(int index, double x) throws InappropriateFunctionPointException {
@@ -108,26 +304,76 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
             throw new FunctionPointIndexOutOfBoundsException(index);
         }
 
-        if ((index > 0 && x <= points[index - 1].getX()) ||
-                (index < pointsCount - 1 && x >= points[index + 1].getX())) {
+        if ((index > 0 && x <= xValues[index - 1]) ||
+                (index < pointsCount - 1 && x >= xValues[index + 1])) {
             throw new InappropriateFunctionPointException("Нарушение порядка точек по X");
         }
 
-        points[index].setX(x);
+        ensureExclusive();
+        if (xValues[index] != x) {
+            uniformGrid = false;
+        }
+        xValues[index] = x;
+        updateSlopes(index - 1, index + 1);
     }
 
     public double getPointY(int index) {
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException(index);
         }
-        return points[index].getY();
+        return yValues[index];
     }
 
     public void setPointY(int index, double y) {
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException(index);
         }
-        points[index].setY(y);
+        ensureExclusive();
+        yValues[index] = y;
+        updateSlopes(index - 1, index + 1);
+    }
+
+    // Обход и выгрузка точек напрямую из массивов
+    public void forEachPoint(PointConsumer consumer) {
+        for (int i = 0; i < pointsCount; i++) {
+            consumer.accept(xValues[i], yValues[i]);
+        }
+    }
+
+    // Курсор читает поля функции, а не копии ссылок на массивы, поэтому видит
+    // изменения значений точек, сделанные во время обхода
+    public PointCursor cursor() {
+        return new PointCursor() {
+            private int index = -1;
+
+            public boolean next() {
+                if (index + 1 >= pointsCount) {
+                    return false;
+                }
+                index++;
+                return true;
+            }
+
+            public double getX() {
+                return xValues[index];
+            }
+
+            public double getY() {
+                return yValues[index];
+            }
+
+            public void reset() {
+                index = -1;
+            }
+        };
+    }
+
+    public void copyXs(double[] dest, int destOffset) {
+        System.arraycopy(xValues, 0, dest, destOffset, pointsCount);
+    }
+
+    public void copyYs(double[] dest, int destOffset) {
+        System.arraycopy(yValues, 0, dest, destOffset, pointsCount);
     }
 
     public void deletePoint(int index) {
@@ -138,30 +384,118 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
             throw new IllegalStateException("Нельзя удалить точку: должно остаться минимум 2 точки");
         }
 
-        System.arraycopy(points, index + 1, points, index, pointsCount - index - 1);
+        ensureExclusive();
+        // Удаление крайней точки сохраняет равномерность сетки
+        if (index != 0 && index != pointsCount - 1) {
+            uniformGrid = false;
+        }
+
+        System.arraycopy(xValues, index + 1, xValues, index, pointsCount - index - 1);
+        System.arraycopy(yValues, index + 1, yValues, index, pointsCount - index - 1);
+        System.arraycopy(slopes, index + 1, slopes, index, pointsCount - index - 1);
         pointsCount--;
-        points[pointsCount] = null;
+        updateSlopes(index - 1, index);
+        FunctionInstrumentation.recordDeletion();
     }
 
     public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
-        int insertIndex = 0;
-        while (insertIndex < pointsCount && points[insertIndex].getX() < point.getX()) {
-            insertIndex++;
-        }
+        int insertIndex = lowerBound(point.getX());
 
-        if (insertIndex < pointsCount && doubleEquals(points[insertIndex].getX(), point.getX())) {
+        if (insertIndex < pointsCount && doubleEquals(xValues[insertIndex], point.getX())) {
             throw new InappropriateFunctionPointException("Точка с таким X уже существует");
         }
 
-        if (pointsCount == points.length) {
-            FunctionPoint[] newArray = new FunctionPoint[points.length * 2];
-            System.arraycopy(points, 0, newArray, 0, pointsCount);
-            points = newArray;
+        if (pointsCount == xValues.length) {
+            shared = false;
+            double[] newX = new double[xValues.length * 2];
+            double[] newY = new double[yValues.length * 2];
+            double[] newSlopes = new double[slopes.length * 2];
+            System.arraycopy(xValues, 0, newX, 0, pointsCount);
+            System.arraycopy(yValues, 0, newY, 0, pointsCount);
+            System.arraycopy(slopes, 0, newSlopes, 0, pointsCount);
+            FunctionInstrumentation.recordRegrowth(xValues.length, newX.length, pointsCount);
+            xValues = newX;
+            yValues = newY;
+            slopes = newSlopes;
         }
 
-        System.arraycopy(points, insertIndex, points, insertIndex + 1, pointsCount - insertIndex);
-        points[insertIndex] = new FunctionPoint(point);
+        ensureExclusive();
+        System.arraycopy(xValues, insertIndex, xValues, insertIndex + 1, pointsCount - insertIndex);
+        System.arraycopy(yValues, insertIndex, yValues, insertIndex + 1, pointsCount - insertIndex);
+        System.arraycopy(slopes, insertIndex, slopes, insertIndex + 1, pointsCount - insertIndex);
+        xValues[insertIndex] = point.getX();
+        yValues[insertIndex] = point.getY();
         pointsCount++;
+        updateSlopes(insertIndex - 1, insertIndex + 1);
+        uniformGrid = false;
+        FunctionInstrumentation.recordInsertions(1);
+    }
+
+    public void addPoints(FunctionPoint[] points) throws InappropriateFunctionPointException {
+        double[][] batch = TabulatedFunctions.sortedBatch(points);
+        double[] xs = batch[0];
+        double[] ys = batch[1];
+        int batchCount = xs.length;
+
+        // Все точки пакета проверяются до изменения данных одним совместным проходом
+        int i = 0;
+        for (int k = 0; k < batchCount; k++) {
+            double x = xs[k];
+            while (i < pointsCount && xValues[i] < x) {
+                i++;
+            }
+            if ((i < pointsCount && xValues[i] - x < EPSILON) || (i > 0 && x - xValues[i - 1] < EPSILON)) {
+                throw new InappropriateFunctionPointException("Точка с таким X уже существует");
+            }
+        }
+
+        // Не более одного расширения массивов на весь пакет
+        int total = pointsCount + batchCount;
+        double[] targetX = xValues;
+        double[] targetY = yValues;
+        if (total > xValues.length) {
+            int capacity = Math.max(xValues.length * 2, total);
+            targetX = new double[capacity];
+            targetY = new double[capacity];
+            FunctionInstrumentation.recordRegrowth(xValues.length, capacity, pointsCount);
+        } else if (shared) {
+            targetX = new double[xValues.length];
+            targetY = new double[yValues.length];
+        }
+
+        // Слияние с конца: каждая существующая точка сдвигается не более одного раза
+        int a = pointsCount - 1;
+        int b = batchCount - 1;
+        for (int k = total - 1; k >= 0; k--) {
+            if (b < 0 && targetX == xValues) {
+                break;
+            }
+            if (b >= 0 && (a < 0 || xs[b] > xValues[a])) {
+                targetX[k] = xs[b];
+                targetY[k] = ys[b];
+                b--;
+            } else {
+                targetX[k] = xValues[a];
+                targetY[k] = yValues[a];
+                a--;
+            }
+        }
+
+        boolean moved = targetX != xValues;
+        if (moved) {
+            slopes = new double[targetX.length];
+        }
+        xValues = targetX;
+        yValues = targetY;
+        pointsCount = total;
+        shared = false;
+        if (batchCount > 0) {
+            uniformGrid = false;
+        }
+        if (moved || batchCount > 0) {
+            updateSlopes(0, pointsCount - 1);
+        }
+        FunctionInstrumentation.recordInsertions(batchCount);
     }
 
     @Override
@@ -169,7 +503,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
         StringBuilder sb = new StringBuilder();
         sb.append("ArrayTabulatedFunction [pointsCount=").append(pointsCount).append("]\n");
         for (int i = 0; i < pointsCount; i++) {
-            sb.append(String.format("  [%d] x=%.3f, y=%.3f%n", i, points[i].getX(), points[i].getY()));
+            sb.append(String.format("  [%d] x=%.3f, y=%.3f%n", i, xValues[i], yValues[i]));
         }
         return sb.toString();
     }
@@ -0,0 +1,522 @@
+package functions;
+
+public final class CompressedTabulatedFunction implements TabulatedFunction {
+    // Сжатое представление табулированной функции только для чтения.
+    // Точки разбиты на блоки по BLOCK_SIZE. Первая точка блока хранится в индексе
+    // без сжатия, остальные - в общем битовом потоке:
+    // - X на равномерной сетке не хранится вовсе (leftX + i * step), иначе
+    //   кодируется разность разностей упорядоченных битовых представлений;
+    // - Y кодируется XOR с предыдущим значением блока (как в Gorilla).
+    // Кодирование без потерь, поэтому значения совпадают с исходной функцией.
+    // Для вычисления значения декодируется только один блок
+    private static final int BLOCK_SHIFT = 6;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+    private static final double EPSILON = 1e-10;
+
+    private final int pointsCount;
+    private final boolean uniformGrid;
+    private final double leftX;
+    private final double rightX;
+    private final double gridStep;
+
+    // Индекс блоков: позиция начала блока в потоке и его первая точка
+    private final long[] blockOffsets;
+    private final double[] blockX;
+    private final double[] blockY;
+
+    private final long[] bits;
+
+    public CompressedTabulatedFunction(TabulatedFunction function) {
+        int count = function.getPointsCount();
+        PointCursor cursor = function.cursor();
+        double step = TabulatedFunctions.findUniformStep(function, cursor);
+
+        int blocksCount = ((count - 1) >>> BLOCK_SHIFT) + 1;
+        long[] offsets = new long[blocksCount];
+        double[] firstX = new double[blocksCount];
+        double[] firstY = new double[blocksCount];
+        BitWriter writer = new BitWriter(count);
+
+        // Состояние кодировщика внутри блока
+        long previousX = 0;
+        long previousDelta = 0;
+        long previousY = 0;
+        int leading = -1;
+        int trailing = 0;
+        double lastX = Double.NaN;
+
+        cursor.reset();
+        for (int i = 0; cursor.next(); i++) {
+            double x = cursor.getX();
+            double y = cursor.getY();
+            lastX = x;
+
+            if ((i & BLOCK_MASK) == 0) {
+                int block = i >>> BLOCK_SHIFT;
+                offsets[block] = writer.size;
+                firstX[block] = x;
+                firstY[block] = y;
+                previousX = sortableBits(x);
+                previousDelta = 0;
+                previousY = Double.doubleToRawLongBits(y);
+                leading = -1;
+                continue;
+            }
+
+            if (Double.isNaN(step)) {
+                long current = sortableBits(x);
+                long delta = current - previousX;
+                writeDeltaOfDelta(writer, delta - previousDelta);
+                previousX = current;
+                previousDelta = delta;
+            }
+
+            long current = Double.doubleToRawLongBits(y);
+            long xor = current ^ previousY;
+            if (xor == 0) {
+                writer.write(0, 1);
+            } else {
+                int currentLeading = Long.numberOfLeadingZeros(xor);
+                int currentTrailing = Long.numberOfTrailingZeros(xor);
+                if (leading >= 0 && currentLeading >= leading && currentTrailing >= trailing) {
+                    // Значащие биты умещаются в окно предыдущего значения
+                    writer.write(0b10, 2);
+                    writer.write(xor >>> trailing, 64 - leading - trailing);
+                } else {
+                    int meaningful = 64 - currentLeading - currentTrailing;
+                    writer.write(0b11, 2);
+                    writer.write(currentLeading, 6);
+                    writer.write(meaningful - 1, 6);
+                    writer.write(xor >>> currentTrailing, meaningful);
+                    leading = currentLeading;
+                    trailing = currentTrailing;
+                }
+            }
+            previousY = current;
+        }
+
+        this.pointsCount = count;
+        this.uniformGrid = !Double.isNaN(step);
+        this.leftX = firstX[0];
+        this.rightX = lastX;
+        this.gridStep = uniformGrid ? step : 0;
+        this.blockOffsets = offsets;
+        this.blockX = firstX;
+        this.blockY = firstY;
+        this.bits = writer.toArray();
+    }
+
+    // Разность разностей в зигзаг-кодировке: 0 - один бит, малые значения - 7, 12 или 20 бит
+    private static void writeDeltaOfDelta(BitWriter writer, long deltaOfDelta) {
+        long zigzag = (deltaOfDelta << 1) ^ (deltaOfDelta >> 63);
+        if (zigzag == 0) {
+            writer.write(0, 1);
+        } else if (zigzag >>> 7 == 0) {
+            writer.write(0b10, 2);
+            writer.write(zigzag, 7);
+        } else if (zigzag >>> 12 == 0) {
+            writer.write(0b110, 3);
+            writer.write(zigzag, 12);
+        } else if (zigzag >>> 20 == 0) {
+            writer.write(0b1110, 4);
+            writer.write(zigzag, 20);
+        } else {
+            writer.write(0b1111, 4);
+            writer.write(zigzag, 64);
+        }
+    }
+
+    // Биты double, упорядоченные так же, как сами числа (для отрицательных
+    // инвертируются все биты, кроме знакового); преобразование обратно самому себе
+    private static long sortableBits(double x) {
+        long raw = Double.doubleToRawLongBits(x);
+        return raw ^ ((raw >> 63) & Long.MAX_VALUE);
+    }
+
+    private static double fromSortableBits(long sortable) {
+        return Double.longBitsToDouble(sortable ^ ((sortable >> 63) & Long.MAX_VALUE));
+    }
+
+    // Битовый поток при построении: биты записываются от старших к младшим
+    private static class BitWriter {
+        long[] words;
+        long size;
+
+        BitWriter(int pointsCount) {
+            words = new long[Math.max(pointsCount / 16, 16)];
+        }
+
+        // Запись младших n бит значения, 1 <= n <= 64
+        void write(long value, int n) {
+            if (n < 64) {
+                value &= (1L << n) - 1;
+            }
+            int word = (int) (size >>> 6);
+            int offset = (int) (size & 63);
+            if (word + 1 >= words.length) {
+                long[] grown = new long[words.length * 2];
+                System.arraycopy(words, 0, grown, 0, words.length);
+                words = grown;
+            }
+            words[word] |= (value << (64 - n)) >>> offset;
+            if (offset + n > 64) {
+                words[word + 1] |= value << (128 - n - offset);
+            }
+            size += n;
+        }
+
+        long[] toArray() {
+            long[] result = new long[(int) ((size + 63) >>> 6)];
+            System.arraycopy(words, 0, result, 0, result.length);
+            return result;
+        }
+    }
+
+    // Чтение n бит, начиная с позиции position, 1 <= n <= 64
+    private long readBits(long position, int n) {
+        int word = (int) (position >>> 6);
+        int offset = (int) (position & 63);
+        long value = bits[word] << offset;
+        if (offset + n > 64) {
+            value |= bits[word + 1] >>> (64 - offset);
+        }
+        return value >>> (64 - n);
+    }
+
+    // Последовательное декодирование точек. Переход через границу блока
+    // выполняется по индексу, поэтому читатель может начать с любого блока
+    private final class BlockReader {
+        int index;
+        double x;
+        double y;
+
+        private long position;
+        private long xBits;
+        private long delta;
+        private long yBits;
+        private int leading;
+        private int trailing;
+
+        // Переход к первой точке блока
+        void seek(int block) {
+            index = block << BLOCK_SHIFT;
+            position = blockOffsets[block];
+            x = blockX[block];
+            y = blockY[block];
+            xBits = sortableBits(x);
+            delta = 0;
+            yBits = Double.doubleToRawLongBits(y);
+            leading = -1;
+        }
+
+        // Переход к следующей точке; вызывающий код проверяет, что она есть
+        void next() {
+            index++;
+            if ((index & BLOCK_MASK) == 0) {
+                seek(index >>> BLOCK_SHIFT);
+                return;
+            }
+
+            if (uniformGrid) {
+                x = leftX + index * gridStep;
+            } else {
+                delta += readDeltaOfDelta();
+                xBits += delta;
+                x = fromSortableBits(xBits);
+            }
+
+            if (readBits(position++, 1) != 0) {
+                if (readBits(position++, 1) != 0) {
+                    leading = (int) readBits(position, 6);
+                    int meaningful = (int) readBits(position + 6, 6) + 1;
+                    trailing = 64 - leading - meaningful;
+                    position += 12;
+                }
+                int meaningful = 64 - leading - trailing;
+                yBits ^= readBits(position, meaningful) << trailing;
+                position += meaningful;
+                y = Double.longBitsToDouble(yBits);
+            }
+        }
+
+        private long readDeltaOfDelta() {
+            int width;
+            if (readBits(position++, 1) == 0) {
+                return 0;
+            } else if (readBits(position++, 1) == 0) {
+                width = 7;
+            } else if (readBits(position++, 1) == 0) {
+                width = 12;
+            } else if (readBits(position++, 1) == 0) {
+                width = 20;
+            } else {
+                width = 64;
+            }
+            long zigzag = readBits(position, width);
+            position += width;
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+    }
+
+    // Объем сжатых данных вместе с индексом блоков, в байтах
+    public long getCompressedBytes() {
+        return bits.length * 8L + blockOffsets.length * 24L;
+    }
+
+    // Отношение размера точек без сжатия (16 байт на точку) к объему сжатых данных
+    public double getCompressionRatio() {
+        return pointsCount * 16.0 / getCompressedBytes();
+    }
+
+    private boolean doubleEquals(double a, double b) {
+        return Math.abs(a - b) < EPSILON;
+    }
+
+    // Блок, в котором начинается интервал для x: последний блок с первой точкой
+    // левее x (или первый блок)
+    private int findBlock(double x) {
+        int low = 0;
+        int high = blockX.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (blockX[mid] < x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return Math.max(low - 1, 0);
+    }
+
+    private BlockReader readerAt(int index) {
+        BlockReader reader = new BlockReader();
+        reader.seek(index >>> BLOCK_SHIFT);
+        while (reader.index < index) {
+            reader.next();
+        }
+        return reader;
+    }
+
+    // Значение на интервале [x1, x2], x лежит в области определения
+    private double interpolate(double x1, double y1, double x2, double y2, double x) {
+        if (doubleEquals(x1, x)) {
+            return y1;
+        }
+        if (doubleEquals(x2, x)) {
+            return y2;
+        }
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException(index);
+        }
+    }
+
+    // Методы интерфейса TabulatedFunction
+
+    public double getLeftDomainBorder() {
+        return leftX;
+    }
+
+    public double getRightDomainBorder() {
+        return rightX;
+    }
+
+    public double getFunctionValue(double x) {
+        if (x < leftX || x > rightX) {
+            return Double.NaN;
+        }
+
+        BlockReader reader = new BlockReader();
+        reader.seek(findBlock(x));
+        double x1 = reader.x;
+        double y1 = reader.y;
+        reader.next();
+        while (reader.index < pointsCount - 1 && reader.x < x) {
+            x1 = reader.x;
+            y1 = reader.y;
+            reader.next();
+        }
+        return interpolate(x1, y1, reader.x, reader.y, x);
+    }
+
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        if (xsOffset < 0 || outOffset < 0 || length < 0 ||
+                xsOffset > xs.length - length || outOffset > out.length - length) {
+            throw new IndexOutOfBoundsException("Диапазон выходит за границы массива");
+        }
+
+        if (!isSorted(xs, xsOffset, length)) {
+            for (int k = 0; k < length; k++) {
+                out[outOffset + k] = getFunctionValue(xs[xsOffset + k]);
+            }
+            return;
+        }
+
+        // Аргументы упорядочены: точки декодируются одним проходом, начиная
+        // с блока первого аргумента из области определения
+        BlockReader reader = null;
+        double x1 = 0;
+        double y1 = 0;
+        for (int k = 0; k < length; k++) {
+            double x = xs[xsOffset + k];
+            if (x < leftX || x > rightX) {
+                out[outOffset + k] = Double.NaN;
+                continue;
+            }
+            if (reader == null) {
+                reader = new BlockReader();
+                reader.seek(findBlock(x));
+                x1 = reader.x;
+                y1 = reader.y;
+                reader.next();
+            }
+            while (reader.index < pointsCount - 1 && reader.x < x) {
+                x1 = reader.x;
+                y1 = reader.y;
+                reader.next();
+            }
+            out[outOffset + k] = interpolate(x1, y1, reader.x, reader.y, x);
+        }
+    }
+
+    // Проверка, что аргументы идут по неубыванию (NaN нарушает порядок)
+    private static boolean isSorted(double[] xs, int offset, int length) {
+        for (int k = offset + 1; k < offset + length; k++) {
+            if (!(xs[k - 1] <= xs[k])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getPointsCount() {
+        return pointsCount;
+    }
+
+    public FunctionPoint getPoint(int index) {
+        checkIndex(index);
+        BlockReader reader = readerAt(index);
+        return new FunctionPoint(reader.x, reader.y);
+    }
+
+    public double getPointX(int index) {
+        checkIndex(index);
+        if (uniformGrid) {
+            return leftX + index * gridStep;
+        }
+        return readerAt(index).x;
+    }
+
+    public double getPointY(int index) {
+        checkIndex(index);
+        return readerAt(index).y;
+    }
+
+    // Обход и выгрузка точек одним проходом по потоку
+
+    public void forEachPoint(PointConsumer consumer) {
+        BlockReader reader = new BlockReader();
+        reader.seek(0);
+        consumer.accept(reader.x, reader.y);
+        while (reader.index < pointsCount - 1) {
+            reader.next();
+            consumer.accept(reader.x, reader.y);
+        }
+    }
+
+    public PointCursor cursor() {
+        return new PointCursor() {
+            private final BlockReader reader = new BlockReader();
+            private boolean started;
+
+            public boolean next() {
+                if (!started) {
+                    reader.seek(0);
+                    started = true;
+                    return true;
+                }
+                if (reader.index >= pointsCount - 1) {
+                    return false;
+                }
+                reader.next();
+                return true;
+            }
+
+            public double getX() {
+                return reader.x;
+            }
+
+            public double getY() {
+                return reader.y;
+            }
+
+            public void reset() {
+                started = false;
+            }
+        };
+    }
+
+    public void copyXs(double[] dest, int destOffset) {
+        if (destOffset < 0 || destOffset > dest.length - pointsCount) {
+            throw new IndexOutOfBoundsException("Массив слишком мал для " + pointsCount + " точек");
+        }
+        BlockReader reader = new BlockReader();
+        reader.seek(0);
+        dest[destOffset] = reader.x;
+        while (reader.index < pointsCount - 1) {
+            reader.next();
+            dest[destOffset + reader.index] = reader.x;
+        }
+    }
+
+    public void copyYs(double[] dest, int destOffset) {
+        if (destOffset < 0 || destOffset > dest.length - pointsCount) {
+            throw new IndexOutOfBoundsException("Массив слишком мал для " + pointsCount + " точек");
+        }
+        BlockReader reader = new BlockReader();
+        reader.seek(0);
+        dest[destOffset] = reader.y;
+        while (reader.index < pointsCount - 1) {
+            reader.next();
+            dest[destOffset + reader.index] = reader.y;
+        }
+    }
+
+    // Сжатое представление изменять нельзя
+
+    public void setPoint(int index, FunctionPoint point) {
+        throw new UnsupportedOperationException("Сжатую функцию нельзя изменять");
+    }
+
+    public void setPointX(int index, double x) {
+        throw new UnsupportedOperationException("Сжатую функцию нельзя изменять");
+    }
+
+    public void setPointY(int index, double y) {
+        throw new UnsupportedOperationException("Сжатую функцию нельзя изменять");
+    }
+
+    public void deletePoint(int index) {
+        throw new UnsupportedOperationException("Сжатую функцию нельзя изменять");
+    }
+
+    public void addPoint(FunctionPoint point) {
+        throw new UnsupportedOperationException("Сжатую функцию нельзя изменять");
+    }
+
+    public void addPoints(FunctionPoint[] points) {
+        throw new UnsupportedOperationException("Сжатую функцию нельзя изменять");
+    }
+
+    @Override
+    public String toString() {
+        return "CompressedTabulatedFunction [pointsCount=" + pointsCount + ", uniformGrid=" + uniformGrid +
+                ", compressedBytes=" + getCompressedBytes() +
+                ", compressionRatio=" + String.format("%.2f", getCompressionRatio()) + "]";
+    }
+}
\ No newline at end of file
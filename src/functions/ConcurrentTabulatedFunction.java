@@ -0,0 +1,303 @@
+package functions;
+
+import java.util.concurrent.locks.StampedLock;
+
+public class ConcurrentTabulatedFunction implements TabulatedFunction {
+    // Потокобезопасная обертка над табулированной функцией. Изменения выполняются
+    // под блокировкой записи. Чтение функции на массивах сначала выполняется
+    // оптимистически, без блокировки: если за это время была запись, результат
+    // отбрасывается и чтение повторяется под блокировкой чтения. Для остальных
+    // реализаций чтение сразу идет под блокировкой чтения, так как обход
+    // изменяемых ссылок во время записи небезопасен. Если вычисление значения
+    // изменяет саму функцию (AdaptiveTabulatedFunction уточняет таблицу), оно
+    // выполняется под блокировкой записи
+    private final TabulatedFunction function;
+    private final StampedLock lock = new StampedLock();
+    private final boolean optimisticReads;
+    private final boolean mutatingReads;
+
+    public ConcurrentTabulatedFunction(TabulatedFunction function) {
+        if (function instanceof LinkedListTabulatedFunction) {
+            ((LinkedListTabulatedFunction) function).confineCacheToThreads();
+        } else if (function instanceof UnrolledLinkedListTabulatedFunction) {
+            ((UnrolledLinkedListTabulatedFunction) function).confineCacheToThreads();
+        }
+        this.function = function;
+        this.optimisticReads = function instanceof ArrayTabulatedFunction;
+        this.mutatingReads = function instanceof AdaptiveTabulatedFunction;
+    }
+
+    public double getLeftDomainBorder() {
+        if (optimisticReads) {
+            long stamp = lock.tryOptimisticRead();
+            try {
+                double value = function.getLeftDomainBorder();
+                if (lock.validate(stamp)) {
+                    return value;
+                }
+            } catch (RuntimeException e) {
+                // Данные менялись во время чтения, повторяем под блокировкой
+            }
+        }
+        long stamp = lock.readLock();
+        try {
+            return function.getLeftDomainBorder();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public double getRightDomainBorder() {
+        if (optimisticReads) {
+            long stamp = lock.tryOptimisticRead();
+            try {
+                double value = function.getRightDomainBorder();
+                if (lock.validate(stamp)) {
+                    return value;
+                }
+            } catch (RuntimeException e) {
+                // Данные менялись во время чтения, повторяем под блокировкой
+            }
+        }
+        long stamp = lock.readLock();
+        try {
+            return function.getRightDomainBorder();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public double getFunctionValue(double x) {
+        if (mutatingReads) {
+            long stamp = lock.writeLock();
+            try {
+                return function.getFunctionValue(x);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+        if (optimisticReads) {
+            long stamp = lock.tryOptimisticRead();
+            try {
+                double value = function.getFunctionValue(x);
+                if (lock.validate(stamp)) {
+                    return value;
+                }
+            } catch (RuntimeException e) {
+                // Данные менялись во время чтения, повторяем под блокировкой
+            }
+        }
+        long stamp = lock.readLock();
+        try {
+            return function.getFunctionValue(x);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        if (mutatingReads) {
+            long stamp = lock.writeLock();
+            try {
+                function.getFunctionValues(xs, xsOffset, out, outOffset, length);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            return;
+        }
+        if (optimisticReads) {
+            // При вычислении на месте (xs и out - один массив) неудачная попытка
+            // испортила бы аргументы повтора, поэтому она пишет во временный буфер
+            long stamp = lock.tryOptimisticRead();
+            try {
+                boolean inPlace = xs == out;
+                double[] target = inPlace ? new double[length] : out;
+                function.getFunctionValues(xs, xsOffset, target, inPlace ? 0 : outOffset, length);
+                if (lock.validate(stamp)) {
+                    if (inPlace) {
+                        System.arraycopy(target, 0, out, outOffset, length);
+                    }
+                    return;
+                }
+            } catch (RuntimeException e) {
+                // Данные менялись во время чтения, повторяем под блокировкой
+            }
+        }
+        long stamp = lock.readLock();
+        try {
+            function.getFunctionValues(xs, xsOffset, out, outOffset, length);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int getPointsCount() {
+        if (optimisticReads) {
+            long stamp = lock.tryOptimisticRead();
+            int count = function.getPointsCount();
+            if (lock.validate(stamp)) {
+                return count;
+            }
+        }
+        long stamp = lock.readLock();
+        try {
+            return function.getPointsCount();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public FunctionPoint getPoint(int index) {
+        if (optimisticReads) {
+            long stamp = lock.tryOptimisticRead();
+            try {
+                FunctionPoint point = function.getPoint(index);
+                if (lock.validate(stamp)) {
+                    return point;
+                }
+            } catch (RuntimeException e) {
+                // Данные менялись во время чтения, повторяем под блокировкой
+            }
+        }
+        long stamp = lock.readLock();
+        try {
+            return function.getPoint(index);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        long stamp = lock.writeLock();
+        try {
+            function.setPoint(index, point);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public double getPointX(int index) {
+        if (optimisticReads) {
+            long stamp = lock.tryOptimisticRead();
+            try {
+                double x = function.getPointX(index);
+                if (lock.validate(stamp)) {
+                    return x;
+                }
+            } catch (RuntimeException e) {
+                // Данные менялись во время чтения, повторяем под блокировкой
+            }
+        }
+        long stamp = lock.readLock();
+        try {
+            return function.getPointX(index);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        long stamp = lock.writeLock();
+        try {
+            function.setPointX(index, x);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public double getPointY(int index) {
+        if (optimisticReads) {
+            long stamp = lock.tryOptimisticRead();
+            try {
+                double y = function.getPointY(index);
+                if (lock.validate(stamp)) {
+                    return y;
+                }
+            } catch (RuntimeException e) {
+                // Данные менялись во время чтения, повторяем под блокировкой
+            }
+        }
+        long stamp = lock.readLock();
+        try {
+            return function.getPointY(index);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void setPointY(int index, double y) {
+        long stamp = lock.writeLock();
+        try {
+            function.setPointY(index, y);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Обход выполняется целиком под блокировкой чтения, поэтому consumer не должен
+    // изменять эту же функцию. Курсор не переопределен: каждый его шаг - отдельное
+    // чтение по индексу, и между шагами функция может измениться
+    public void forEachPoint(PointConsumer consumer) {
+        long stamp = lock.readLock();
+        try {
+            function.forEachPoint(consumer);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void copyXs(double[] dest, int destOffset) {
+        long stamp = lock.readLock();
+        try {
+            function.copyXs(dest, destOffset);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void copyYs(double[] dest, int destOffset) {
+        long stamp = lock.readLock();
+        try {
+            function.copyYs(dest, destOffset);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void deletePoint(int index) {
+        long stamp = lock.writeLock();
+        try {
+            function.deletePoint(index);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        long stamp = lock.writeLock();
+        try {
+            function.addPoint(point);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void addPoints(FunctionPoint[] points) throws InappropriateFunctionPointException {
+        long stamp = lock.writeLock();
+        try {
+            function.addPoints(points);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public String toString() {
+        long stamp = lock.readLock();
+        try {
+            return function.toString();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package functions;
+
+public class CopyOnWriteTabulatedFunction implements TabulatedFunction {
+    // Табулированная функция с копированием при записи. Читатели работают с текущим
+    // неизменяемым снимком и никогда не блокируются. Писатели по очереди изменяют
+    // рабочую копию и атомарно публикуют новый снимок после каждого изменения
+    // или пакета изменений (см. update())
+
+    // Пакет изменений, применяемый к рабочей копии функции
+    public interface Update {
+        void apply(TabulatedFunction function) throws InappropriateFunctionPointException;
+    }
+
+    private volatile ImmutableTabulatedFunction snapshot;
+    private ArrayTabulatedFunction draft; // Рабочая копия, доступ только под this
+
+    public CopyOnWriteTabulatedFunction(TabulatedFunction function) {
+        ImmutableTabulatedFunction initial;
+        if (function instanceof ArrayTabulatedFunction) {
+            initial = ((ArrayTabulatedFunction) function).snapshot();
+        } else if (function instanceof LinkedListTabulatedFunction) {
+            initial = ((LinkedListTabulatedFunction) function).snapshot();
+        } else if (function instanceof ImmutableTabulatedFunction) {
+            initial = (ImmutableTabulatedFunction) function;
+        } else {
+            initial = new ImmutableTabulatedFunction(function);
+        }
+        this.draft = initial.mutableCopy();
+        this.snapshot = initial;
+    }
+
+    // Текущий снимок: несколько обращений к нему видят одно и то же состояние
+    public ImmutableTabulatedFunction snapshot() {
+        return snapshot;
+    }
+
+    // Применение пакета изменений с одной публикацией в конце. Если пакет
+    // завершился исключением, ни одно из его изменений не становится видимым
+    public synchronized void update(Update update) throws InappropriateFunctionPointException {
+        boolean completed = false;
+        try {
+            update.apply(draft);
+            completed = true;
+        } finally {
+            if (completed) {
+                snapshot = draft.snapshot();
+            } else {
+                draft = snapshot.mutableCopy();
+            }
+        }
+    }
+
+    // Чтение всегда идет из текущего снимка
+
+    public double getLeftDomainBorder() {
+        return snapshot.getLeftDomainBorder();
+    }
+
+    public double getRightDomainBorder() {
+        return snapshot.getRightDomainBorder();
+    }
+
+    public double getFunctionValue(double x) {
+        return snapshot.getFunctionValue(x);
+    }
+
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        snapshot.getFunctionValues(xs, xsOffset, out, outOffset, length);
+    }
+
+    public int getPointsCount() {
+        return snapshot.getPointsCount();
+    }
+
+    public FunctionPoint getPoint(int index) {
+        return snapshot.getPoint(index);
+    }
+
+    public double getPointX(int index) {
+        return snapshot.getPointX(index);
+    }
+
+    public double getPointY(int index) {
+        return snapshot.getPointY(index);
+    }
+
+    // Курсор и обход работают по одному снимку; copyXs и copyYs читают каждый
+    // текущий снимок, поэтому для согласованной пары массивов нужен snapshot()
+    public void forEachPoint(PointConsumer consumer) {
+        snapshot.forEachPoint(consumer);
+    }
+
+    public PointCursor cursor() {
+        return snapshot.cursor();
+    }
+
+    public void copyXs(double[] dest, int destOffset) {
+        snapshot.copyXs(dest, destOffset);
+    }
+
+    public void copyYs(double[] dest, int destOffset) {
+        snapshot.copyYs(dest, destOffset);
+    }
+
+    // Каждое одиночное изменение публикует новый снимок. Методы
+    // ArrayTabulatedFunction проверяют аргументы до изменения данных,
+    // поэтому при исключении рабочая копия остается прежней
+
+    public synchronized void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        draft.setPoint(index, point);
+        snapshot = draft.snapshot();
+    }
+
+    public synchronized void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        draft.setPointX(index, x);
+        snapshot = draft.snapshot();
+    }
+
+    public synchronized void setPointY(int index, double y) {
+        draft.setPointY(index, y);
+        snapshot = draft.snapshot();
+    }
+
+    public synchronized void deletePoint(int index) {
+        draft.deletePoint(index);
+        snapshot = draft.snapshot();
+    }
+
+    public synchronized void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        draft.addPoint(point);
+        snapshot = draft.snapshot();
+    }
+
+    public synchronized void addPoints(FunctionPoint[] points) throws InappropriateFunctionPointException {
+        draft.addPoints(points);
+        snapshot = draft.snapshot();
+    }
+
+    @Override
+    public String toString() {
+        return snapshot.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,25 @@
+package functions;
+
+public interface Function {
+    // Получение границ области определения
+    double getLeftDomainBorder();
+    double getRightDomainBorder();
+
+    // Получение значения функции (NaN вне области определения)
+    double getFunctionValue(double x);
+
+    // Пакетное вычисление значений функции в точках xs, результаты записываются в out
+    default void getFunctionValues(double[] xs, double[] out) {
+        getFunctionValues(xs, 0, out, 0, xs.length);
+    }
+
+    default void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        if (xsOffset < 0 || outOffset < 0 || length < 0 ||
+                xsOffset > xs.length - length || outOffset > out.length - length) {
+            throw new IndexOutOfBoundsException("Диапазон выходит за границы массива");
+        }
+        for (int i = 0; i < length; i++) {
+            out[outOffset + i] = getFunctionValue(xs[xsOffset + i]);
+        }
+    }
+}
\ No newline at end of file
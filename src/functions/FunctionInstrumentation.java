@@ -0,0 +1,143 @@
+package functions;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import jdk.jfr.FlightRecorder;
+
+// Сбор показателей работы табулированных функций. Включается при запуске
+// свойством -Dfunctions.metrics=true; иначе флаг ENABLED - константа false,
+// и JIT удаляет вызовы record* вместе с подсчетом шагов в вызывающем коде.
+// Счетчики доступны через metrics() и периодическое событие JFR
+// functions.FunctionMetrics, расширения массивов - событием functions.ArrayRegrowth
+public final class FunctionInstrumentation {
+    static final boolean ENABLED = Boolean.getBoolean("functions.metrics");
+
+    private static final LongAdder evaluations = new LongAdder();
+    private static final LongAdder searchSteps = new LongAdder();
+    private static final LongAdder cacheHits = new LongAdder();
+    private static final LongAdder cacheMisses = new LongAdder();
+    private static final LongAdder regrowths = new LongAdder();
+    private static final LongAdder insertions = new LongAdder();
+    private static final LongAdder deletions = new LongAdder();
+
+    // Представление счетчиков только для чтения; значения читаются при каждом вызове
+    private static final FunctionMetrics METRICS = new FunctionMetrics() {
+        public long getEvaluations() {
+            return evaluations.sum();
+        }
+
+        public long getSearchSteps() {
+            return searchSteps.sum();
+        }
+
+        public long getCacheHits() {
+            return cacheHits.sum();
+        }
+
+        public long getCacheMisses() {
+            return cacheMisses.sum();
+        }
+
+        public long getRegrowths() {
+            return regrowths.sum();
+        }
+
+        public long getInsertions() {
+            return insertions.sum();
+        }
+
+        public long getDeletions() {
+            return deletions.sum();
+        }
+
+        @Override
+        public String toString() {
+            return "FunctionMetrics [evaluations=" + getEvaluations() + ", searchSteps=" + getSearchSteps() +
+                    ", cacheHits=" + getCacheHits() + ", cacheMisses=" + getCacheMisses() +
+                    ", regrowths=" + getRegrowths() + ", insertions=" + getInsertions() +
+                    ", deletions=" + getDeletions() + "]";
+        }
+    };
+
+    static {
+        if (ENABLED) {
+            FlightRecorder.addPeriodicEvent(FunctionMetricsEvent.class, () -> {
+                FunctionMetricsEvent event = new FunctionMetricsEvent();
+                event.evaluations = METRICS.getEvaluations();
+                event.searchSteps = METRICS.getSearchSteps();
+                event.cacheHits = METRICS.getCacheHits();
+                event.cacheMisses = METRICS.getCacheMisses();
+                event.regrowths = METRICS.getRegrowths();
+                event.insertions = METRICS.getInsertions();
+                event.deletions = METRICS.getDeletions();
+                event.commit();
+            });
+        }
+    }
+
+    private FunctionInstrumentation() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static FunctionMetrics metrics() {
+        return METRICS;
+    }
+
+    public static void reset() {
+        evaluations.reset();
+        searchSteps.reset();
+        cacheHits.reset();
+        cacheMisses.reset();
+        regrowths.reset();
+        insertions.reset();
+        deletions.reset();
+    }
+
+    // Точки сбора для реализаций; при выключенном сборе ничего не делают
+
+    static void recordEvaluations(int count) {
+        if (ENABLED) {
+            evaluations.add(count);
+        }
+    }
+
+    static void recordSearchSteps(int steps) {
+        if (ENABLED) {
+            searchSteps.add(steps);
+        }
+    }
+
+    static void recordCacheAccess(boolean hit) {
+        if (ENABLED) {
+            (hit ? cacheHits : cacheMisses).increment();
+        }
+    }
+
+    static void recordRegrowth(int oldCapacity, int newCapacity, int pointsCount) {
+        if (ENABLED) {
+            regrowths.increment();
+            ArrayRegrowthEvent event = new ArrayRegrowthEvent();
+            if (event.shouldCommit()) {
+                event.oldCapacity = oldCapacity;
+                event.newCapacity = newCapacity;
+                event.pointsCount = pointsCount;
+                event.commit();
+            }
+        }
+    }
+
+    static void recordInsertions(int count) {
+        if (ENABLED) {
+            insertions.add(count);
+        }
+    }
+
+    static void recordDeletion() {
+        if (ENABLED) {
+            deletions.increment();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+package functions;
+
+// Накопленные показатели работы табулированных функций (см. FunctionInstrumentation)
+public interface FunctionMetrics {
+    // Число вычисленных значений функции (одиночных и в пакетах)
+    long getEvaluations();
+
+    // Шаги поиска интервала: итерации бинарного поиска, переходы по узлам списка
+    // и поправки индекса на равномерной сетке
+    long getSearchSteps();
+
+    // Обращения к кэшу последнего узла LinkedListTabulatedFunction
+    long getCacheHits();
+    long getCacheMisses();
+
+    // Расширения массивов ArrayTabulatedFunction при добавлении точек
+    long getRegrowths();
+
+    long getInsertions();
+    long getDeletions();
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package functions;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+// Периодическое событие JFR со значениями счетчиков FunctionInstrumentation
+@Name("functions.FunctionMetrics")
+@Label("Tabulated Function Metrics")
+@Category("Tabulated Functions")
+@Description("Накопленные счетчики вычислений, поиска и изменений табулированных функций")
+@Period("1 s")
+@StackTrace(false)
+final class FunctionMetricsEvent extends Event {
+    @Label("Evaluations")
+    long evaluations;
+
+    @Label("Search Steps")
+    long searchSteps;
+
+    @Label("Cache Hits")
+    long cacheHits;
+
+    @Label("Cache Misses")
+    long cacheMisses;
+
+    @Label("Regrowths")
+    long regrowths;
+
+    @Label("Insertions")
+    long insertions;
+
+    @Label("Deletions")
+    long deletions;
+}
\ No newline at end of file
@@ -0,0 +1,32 @@
+package functions;
+
+import functions.meta.Composition;
+import functions.meta.Difference;
+import functions.meta.Product;
+import functions.meta.Sum;
+
+public final class Functions {
+    // Ленивые комбинации функций: результат вычисляется при обращении и не хранит
+    // точек. Таблицы на объединении точек строят методы TabulatedFunctions.add,
+    // subtract, multiply и compose
+
+    private Functions() {
+    }
+
+    public static Function sum(Function f, Function g) {
+        return new Sum(f, g);
+    }
+
+    public static Function difference(Function f, Function g) {
+        return new Difference(f, g);
+    }
+
+    public static Function product(Function f, Function g) {
+        return new Product(f, g);
+    }
+
+    // f(g(x))
+    public static Function composition(Function f, Function g) {
+        return new Composition(f, g);
+    }
+}
\ No newline at end of file
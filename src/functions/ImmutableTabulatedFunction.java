@@ -0,0 +1,309 @@
+package functions;
+
+public final class ImmutableTabulatedFunction implements TabulatedFunction {
+    // Неизменяемый снимок табулированной функции. Массивы точек после создания
+    // не меняются, поэтому объект можно читать из любого числа потоков без блокировок
+    private final double[] xValues;
+    private final double[] yValues;
+    private final double[] slopes; // Наклоны интервалов, как в ArrayTabulatedFunction
+    private final int pointsCount;
+    private final boolean uniformGrid;
+    private final double gridStep;
+
+    private static final double EPSILON = 1e-10;
+
+    // Снимок произвольной табулированной функции (точки копируются)
+    public ImmutableTabulatedFunction(TabulatedFunction function) {
+        int count = function.getPointsCount();
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        function.copyXs(xs, 0);
+        function.copyYs(ys, 0);
+        this.xValues = xs;
+        this.yValues = ys;
+        this.slopes = computeSlopes(xs, ys, count);
+        this.pointsCount = count;
+        this.uniformGrid = false;
+        this.gridStep = 0;
+    }
+
+    // Снимок поверх массивов, которые больше никто не будет изменять
+    ImmutableTabulatedFunction(double[] xValues, double[] yValues, int pointsCount,
+                               boolean uniformGrid, double gridStep) {
+        this(xValues, yValues, computeSlopes(xValues, yValues, pointsCount), pointsCount, uniformGrid, gridStep);
+    }
+
+    // То же с уже вычисленными наклонами
+    ImmutableTabulatedFunction(double[] xValues, double[] yValues, double[] slopes, int pointsCount,
+                               boolean uniformGrid, double gridStep) {
+        this.xValues = xValues;
+        this.yValues = yValues;
+        this.slopes = slopes;
+        this.pointsCount = pointsCount;
+        this.uniformGrid = uniformGrid;
+        this.gridStep = gridStep;
+    }
+
+    private static double[] computeSlopes(double[] xs, double[] ys, int count) {
+        double[] slopes = new double[count];
+        for (int i = 0; i < count - 1; i++) {
+            slopes[i] = (ys[i + 1] - ys[i]) / (xs[i + 1] - xs[i]);
+        }
+        return slopes;
+    }
+
+    // Изменяемая копия снимка
+    ArrayTabulatedFunction mutableCopy() {
+        double[] xs = new double[pointsCount + 10];
+        double[] ys = new double[pointsCount + 10];
+        System.arraycopy(xValues, 0, xs, 0, pointsCount);
+        System.arraycopy(yValues, 0, ys, 0, pointsCount);
+        return new ArrayTabulatedFunction(xs, ys, pointsCount, uniformGrid);
+    }
+
+    // Левый конец интервала: последняя точка с X меньше заданного (или первая точка)
+    private int findInterval(double x) {
+        int i;
+        if (uniformGrid) {
+            i = Math.min((int) ((x - xValues[0]) / gridStep), pointsCount - 2);
+        } else {
+            int low = 0;
+            int high = pointsCount;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (xValues[mid] < x) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            i = Math.max(low - 1, 0);
+        }
+        while (i > 0 && xValues[i] >= x) {
+            i--;
+        }
+        while (i < pointsCount - 2 && xValues[i + 1] < x) {
+            i++;
+        }
+        return i;
+    }
+
+    // Значение на интервале [x_i, x_(i+1)], x лежит в области определения;
+    // вблизи узла возвращается значение в узле, как в ArrayTabulatedFunction
+    private double interpolate(int i, double x) {
+        if (doubleEquals(xValues[i], x)) {
+            return yValues[i];
+        }
+        if (doubleEquals(xValues[i + 1], x)) {
+            return yValues[i + 1];
+        }
+        return Math.fma(slopes[i], x - xValues[i], yValues[i]);
+    }
+
+    private boolean doubleEquals(double a, double b) {
+        return Math.abs(a - b) < EPSILON;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException(index);
+        }
+    }
+
+    // Методы интерфейса TabulatedFunction
+
+    public double getLeftDomainBorder() {
+        return xValues[0];
+    }
+
+    public double getRightDomainBorder() {
+        return xValues[pointsCount - 1];
+    }
+
+    public double getFunctionValue(double x) {
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+            return Double.NaN;
+        }
+        return interpolate(findInterval(x), x);
+    }
+
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        if (xsOffset < 0 || outOffset < 0 || length < 0 ||
+                xsOffset > xs.length - length || outOffset > out.length - length) {
+            throw new IndexOutOfBoundsException("Диапазон выходит за границы массива");
+        }
+
+        if (length >= InterpolationKernel.MIN_LENGTH && InterpolationKernel.VECTOR != null) {
+            evaluateVectorized(xs, xsOffset, out, outOffset, length);
+            return;
+        }
+
+        if (!isSorted(xs, xsOffset, length)) {
+            for (int k = 0; k < length; k++) {
+                out[outOffset + k] = getFunctionValue(xs[xsOffset + k]);
+            }
+            return;
+        }
+
+        // Аргументы упорядочены: индекс интервала только растет
+        double leftX = xValues[0];
+        double rightX = xValues[pointsCount - 1];
+        int i = 0;
+        for (int k = 0; k < length; k++) {
+            double x = xs[xsOffset + k];
+            if (x < leftX || x > rightX) {
+                out[outOffset + k] = Double.NaN;
+                continue;
+            }
+            while (i < pointsCount - 2 && xValues[i + 1] < x) {
+                i++;
+            }
+            out[outOffset + k] = interpolate(i, x);
+        }
+    }
+
+    // Вычисление векторным ядром порциями: для каждого аргумента ищется интервал (для
+    // упорядоченных аргументов одним проходом, иначе поиском), его концы копируются
+    // в плотные буферы, после чего ядро обрабатывает всю порцию
+    private void evaluateVectorized(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        boolean sorted = isSorted(xs, xsOffset, length);
+        double leftX = xValues[0];
+        double rightX = xValues[pointsCount - 1];
+        int capacity = Math.min(length, InterpolationKernel.CHUNK);
+        double[] x1 = new double[capacity];
+        double[] y1 = new double[capacity];
+        double[] slope = new double[capacity];
+        double[] x2 = new double[capacity];
+        double[] y2 = new double[capacity];
+        int i = 0;
+        for (int from = 0; from < length; from += capacity) {
+            int chunk = Math.min(capacity, length - from);
+            for (int k = 0; k < chunk; k++) {
+                double x = xs[xsOffset + from + k];
+                int interval;
+                if (!(x >= leftX && x <= rightX)) {
+                    interval = 0; // Значение все равно будет NaN
+                } else if (sorted) {
+                    while (i < pointsCount - 2 && xValues[i + 1] < x) {
+                        i++;
+                    }
+                    interval = i;
+                } else {
+                    interval = findInterval(x);
+                }
+                x1[k] = xValues[interval];
+                y1[k] = yValues[interval];
+                slope[k] = slopes[interval];
+                x2[k] = xValues[interval + 1];
+                y2[k] = yValues[interval + 1];
+            }
+            InterpolationKernel.VECTOR.interpolate(x1, y1, slope, x2, y2, leftX, rightX,
+                    xs, xsOffset + from, out, outOffset + from, chunk);
+        }
+    }
+
+    // Проверка, что аргументы идут по неубыванию (NaN нарушает порядок)
+    private static boolean isSorted(double[] xs, int offset, int length) {
+        for (int k = offset + 1; k < offset + length; k++) {
+            if (!(xs[k - 1] <= xs[k])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getPointsCount() {
+        return pointsCount;
+    }
+
+    public FunctionPoint getPoint(int index) {
+        checkIndex(index);
+        return new FunctionPoint(xValues[index], yValues[index]);
+    }
+
+    public double getPointX(int index) {
+        checkIndex(index);
+        return xValues[index];
+    }
+
+    public double getPointY(int index) {
+        checkIndex(index);
+        return yValues[index];
+    }
+
+    public void forEachPoint(PointConsumer consumer) {
+        for (int i = 0; i < pointsCount; i++) {
+            consumer.accept(xValues[i], yValues[i]);
+        }
+    }
+
+    public PointCursor cursor() {
+        return new PointCursor() {
+            private int index = -1;
+
+            public boolean next() {
+                if (index + 1 >= pointsCount) {
+                    return false;
+                }
+                index++;
+                return true;
+            }
+
+            public double getX() {
+                return xValues[index];
+            }
+
+            public double getY() {
+                return yValues[index];
+            }
+
+            public void reset() {
+                index = -1;
+            }
+        };
+    }
+
+    public void copyXs(double[] dest, int destOffset) {
+        System.arraycopy(xValues, 0, dest, destOffset, pointsCount);
+    }
+
+    public void copyYs(double[] dest, int destOffset) {
+        System.arraycopy(yValues, 0, dest, destOffset, pointsCount);
+    }
+
+    // Любое изменение снимка запрещено
+
+    public void setPoint(int index, FunctionPoint point) {
+        throw new UnsupportedOperationException("Снимок функции нельзя изменять");
+    }
+
+    public void setPointX(int index, double x) {
+        throw new UnsupportedOperationException("Снимок функции нельзя изменять");
+    }
+
+    public void setPointY(int index, double y) {
+        throw new UnsupportedOperationException("Снимок функции нельзя изменять");
+    }
+
+    public void deletePoint(int index) {
+        throw new UnsupportedOperationException("Снимок функции нельзя изменять");
+    }
+
+    public void addPoint(FunctionPoint point) {
+        throw new UnsupportedOperationException("Снимок функции нельзя изменять");
+    }
+
+    public void addPoints(FunctionPoint[] points) {
+        throw new UnsupportedOperationException("Снимок функции нельзя изменять");
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("ImmutableTabulatedFunction [pointsCount=").append(pointsCount).append("]\n");
+        for (int i = 0; i < pointsCount; i++) {
+            sb.append(String.format("  [%d] x=%.3f, y=%.3f%n", i, xValues[i], yValues[i]));
+        }
+        return sb.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,520 @@
+package functions;
+
+public class IndexedTabulatedFunction implements TabulatedFunction {
+    // Обертка над табулированной функцией с индексом для запросов по отрезку [a, b]:
+    // интеграл (дерево Фенвика над площадями трапеций интервалов) и минимум/максимум
+    // (деревья отрезков над Y) за O(log n). Границы отрезка не обязаны совпадать с
+    // точками: крайние части интервалов учитываются по значениям в a и b, поэтому для
+    // ломаной ответы точные. Для монотонных участков индекс решает и обратную задачу:
+    // findX(y) находит X, в котором функция достигает y, бинарным поиском по Y.
+    // Индекс хранит свои копии X и Y. Изменение X или Y точки обновляет его за
+    // O(log n), добавление и удаление точек - перестройкой за O(n) при следующем
+    // запросе. Все изменения должны идти через обертку, иначе индекс устареет
+    private final TabulatedFunction function;
+
+    private double[] xs;
+    private double[] ys;
+    private int pointsCount;
+    private boolean dirty = true; // Индекс нужно перестроить перед запросом
+
+    // Площади трапеций интервалов и дерево Фенвика над ними
+    private double[] areas;
+    private double[] fenwick;
+    // Число поправок дерева Фенвика после перестройки: поправки накапливают
+    // погрешность округления, поэтому после pointsCount поправок дерево строится заново
+    private int updates;
+
+    // Деревья отрезков: листья (точки) в [pointsCount, 2 * pointsCount)
+    private double[] minTree;
+    private double[] maxTree;
+
+    // Направления интервалов и деревья Фенвика с числом возрастающих и убывающих
+    // интервалов: функция монотонна на отрезке, если одно из чисел на нем нулевое.
+    // Интервал с NaN считается и возрастающим, и убывающим
+    private byte[] directions;
+    private int[] risingTree;
+    private int[] fallingTree;
+
+    private static final byte RISING = 1;
+    private static final byte FALLING = 2;
+    private static final double EPSILON = 1e-10;
+
+    public IndexedTabulatedFunction(TabulatedFunction function) {
+        this.function = function;
+    }
+
+    private boolean doubleEquals(double a, double b) {
+        return Math.abs(a - b) < EPSILON;
+    }
+
+    // Запросы по отрезку
+
+    // Интеграл по [a, b] (при a > b - со знаком минус)
+    public double integrate(double a, double b) {
+        if (a > b) {
+            return -integrate(b, a);
+        }
+        ensureIndex();
+        checkRange(a);
+        checkRange(b);
+        int i = segment(a);
+        int j = segment(b);
+        double ya = valueAt(i, a);
+        double yb = valueAt(j, b);
+        if (i == j) {
+            return (ya + yb) / 2 * (b - a);
+        }
+        // Часть интервала i от a, целые интервалы i+1 .. j-1 и часть интервала j до b
+        return (ya + ys[i + 1]) / 2 * (xs[i + 1] - a)
+                + (prefixArea(j) - prefixArea(i + 1))
+                + (ys[j] + yb) / 2 * (b - xs[j]);
+    }
+
+    // Наименьшее значение функции на [a, b]: у ломаной оно достигается в точке
+    // таблицы внутри отрезка или на его конце
+    public double minValue(double a, double b) {
+        if (a > b) {
+            return minValue(b, a);
+        }
+        ensureIndex();
+        checkRange(a);
+        checkRange(b);
+        int i = segment(a);
+        int j = segment(b);
+        double result = Math.min(valueAt(i, a), valueAt(j, b));
+        return i < j ? Math.min(result, queryMin(i + 1, j + 1)) : result;
+    }
+
+    public double maxValue(double a, double b) {
+        if (a > b) {
+            return maxValue(b, a);
+        }
+        ensureIndex();
+        checkRange(a);
+        checkRange(b);
+        int i = segment(a);
+        int j = segment(b);
+        double result = Math.max(valueAt(i, a), valueAt(j, b));
+        return i < j ? Math.max(result, queryMax(i + 1, j + 1)) : result;
+    }
+
+    public boolean isMonotone() {
+        ensureIndex();
+        return isMonotone(xs[0], xs[pointsCount - 1]);
+    }
+
+    // Функция не убывает или не возрастает на [a, b]
+    public boolean isMonotone(double a, double b) {
+        if (a > b) {
+            return isMonotone(b, a);
+        }
+        ensureIndex();
+        checkRange(a);
+        checkRange(b);
+        int i = segment(a);
+        int j = lastSegment(b, i);
+        return countDirection(risingTree, i, j) == 0 || countDirection(fallingTree, i, j) == 0;
+    }
+
+    // Обратные запросы
+
+    // Наименьший X, в котором функция достигает значения y, или NaN, если такого X нет
+    public double findX(double y) {
+        ensureIndex();
+        return findX(y, xs[0], xs[pointsCount - 1]);
+    }
+
+    // То же на отрезке [a, b]; функция должна быть на нем монотонной
+    public double findX(double y, double a, double b) {
+        if (a > b) {
+            return findX(y, b, a);
+        }
+        ensureIndex();
+        checkRange(a);
+        checkRange(b);
+        int i = segment(a);
+        int j = lastSegment(b, i);
+        int sign = direction(i, j, a, b);
+        double ya = valueAt(i, a);
+        double yb = valueAt(j, b);
+        if (doubleEquals(y, ya)) {
+            return a;
+        }
+        if (sign == 0) {
+            return Double.NaN;
+        }
+        if (doubleEquals(y, yb)) {
+            y = yb;
+        }
+        if (!(sign * y >= sign * ya && sign * y <= sign * yb)) {
+            return Double.NaN;
+        }
+
+        // Первая точка внутри (a, b], в которой функция достигает y
+        int low = i + 1;
+        int high = j + 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sign * ys[mid] < sign * y) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        double x1 = low == i + 1 ? a : xs[low - 1];
+        double y1 = low == i + 1 ? ya : ys[low - 1];
+        double x2 = low == j + 1 ? b : xs[low];
+        double y2 = low == j + 1 ? yb : ys[low];
+        return backInterpolate(x1, y1, x2, y2, y);
+    }
+
+    // Пакетный вариант findX(y) для всей области определения. Значения, упорядоченные
+    // по возрастанию или по убыванию, обрабатываются одним проходом по точкам
+    public void findXs(double[] values, int valuesOffset, double[] out, int outOffset, int length) {
+        if (valuesOffset < 0 || outOffset < 0 || length < 0 ||
+                valuesOffset > values.length - length || outOffset > out.length - length) {
+            throw new IndexOutOfBoundsException("Диапазон выходит за границы массива");
+        }
+        ensureIndex();
+        int sign = direction(0, pointsCount - 2, xs[0], xs[pointsCount - 1]);
+        // Проход идет в порядке роста sign * y, то есть слева направо по X
+        boolean forward = isSorted(values, valuesOffset, length, sign);
+        if (sign == 0 || !forward && !isSorted(values, valuesOffset, length, -sign)) {
+            for (int k = 0; k < length; k++) {
+                out[outOffset + k] = findX(values[valuesOffset + k]);
+            }
+            return;
+        }
+
+        double first = ys[0];
+        double last = ys[pointsCount - 1];
+        int i = 1;
+        for (int step = 0; step < length; step++) {
+            int k = forward ? step : length - 1 - step;
+            double y = values[valuesOffset + k];
+            if (!(sign * y >= sign * first && sign * y <= sign * last)) {
+                out[outOffset + k] = Double.NaN;
+                continue;
+            }
+            while (i < pointsCount - 1 && sign * ys[i] < sign * y) {
+                i++;
+            }
+            out[outOffset + k] = backInterpolate(xs[i - 1], ys[i - 1], xs[i], ys[i], y);
+        }
+    }
+
+    // Проверка, что sign * values[k] идут по неубыванию (NaN нарушает порядок)
+    private static boolean isSorted(double[] values, int offset, int length, int sign) {
+        for (int k = offset + 1; k < offset + length; k++) {
+            if (!(sign * values[k - 1] <= sign * values[k])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // X на интервале [x1, x2], в котором линейная функция принимает значение y
+    private double backInterpolate(double x1, double y1, double x2, double y2, double y) {
+        if (doubleEquals(y1, y) || y1 == y2) {
+            return x1;
+        }
+        if (doubleEquals(y2, y)) {
+            return x2;
+        }
+        double x = x1 + (y - y1) * (x2 - x1) / (y2 - y1);
+        return Math.min(Math.max(x, x1), x2);
+    }
+
+    // Направление функции на интервалах first .. last: 1 - не убывает,
+    // -1 - не возрастает, 0 - постоянна
+    private int direction(int first, int last, double a, double b) {
+        int rising = countDirection(risingTree, first, last);
+        int falling = countDirection(fallingTree, first, last);
+        if (rising > 0 && falling > 0) {
+            throw new IllegalStateException("Функция не монотонна на отрезке [" + a + "; " + b + "]");
+        }
+        return rising > 0 ? 1 : falling > 0 ? -1 : 0;
+    }
+
+    // Число интервалов first .. last с заданным направлением
+    private static int countDirection(int[] tree, int first, int last) {
+        int count = 0;
+        for (int k = last + 1; k > 0; k -= k & -k) {
+            count += tree[k];
+        }
+        for (int k = first; k > 0; k -= k & -k) {
+            count -= tree[k];
+        }
+        return count;
+    }
+
+    private void checkRange(double x) {
+        if (!(x >= xs[0] && x <= xs[pointsCount - 1])) {
+            throw new IllegalArgumentException("Точка " + x + " вне области определения функции");
+        }
+    }
+
+    // Интервал [x_i, x_(i+1)], содержащий x
+    private int segment(double x) {
+        int low = 0;
+        int high = pointsCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xs[mid] <= x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return Math.min(Math.max(low - 1, 0), pointsCount - 2);
+    }
+
+    // Последний интервал отрезка, правый конец которого b: интервал, начинающийся
+    // ровно в b, отрезку не принадлежит
+    private int lastSegment(double b, int first) {
+        int j = segment(b);
+        return j > first && xs[j] == b ? j - 1 : j;
+    }
+
+    private double valueAt(int i, double x) {
+        if (doubleEquals(xs[i], x)) {
+            return ys[i];
+        }
+        if (doubleEquals(xs[i + 1], x)) {
+            return ys[i + 1];
+        }
+        return ys[i] + (ys[i + 1] - ys[i]) * (x - xs[i]) / (xs[i + 1] - xs[i]);
+    }
+
+    // Построение и обновление индекса
+
+    private void ensureIndex() {
+        if (!dirty) {
+            return;
+        }
+        int count = function.getPointsCount();
+        if (count < 2) {
+            throw new IllegalStateException("Количество точек должно быть не менее 2");
+        }
+        if (xs == null || xs.length != count) {
+            xs = new double[count];
+            ys = new double[count];
+            areas = new double[count - 1];
+            fenwick = new double[count];
+            minTree = new double[2 * count];
+            maxTree = new double[2 * count];
+            directions = new byte[count - 1];
+            risingTree = new int[count];
+            fallingTree = new int[count];
+        }
+        pointsCount = count;
+        function.copyXs(xs, 0);
+        function.copyYs(ys, 0);
+
+        // Дерево Фенвика за O(n): каждый узел добавляет свою сумму в родителя
+        for (int i = 0; i < count - 1; i++) {
+            areas[i] = area(i);
+            fenwick[i + 1] = areas[i];
+            directions[i] = direction(i);
+            risingTree[i + 1] = directions[i] & RISING;
+            fallingTree[i + 1] = (directions[i] & FALLING) >> 1;
+        }
+        for (int k = 1; k < count; k++) {
+            int parent = k + (k & -k);
+            if (parent < count) {
+                fenwick[parent] += fenwick[k];
+                risingTree[parent] += risingTree[k];
+                fallingTree[parent] += fallingTree[k];
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            minTree[count + i] = ys[i];
+            maxTree[count + i] = ys[i];
+        }
+        for (int k = count - 1; k > 0; k--) {
+            minTree[k] = Math.min(minTree[2 * k], minTree[2 * k + 1]);
+            maxTree[k] = Math.max(maxTree[2 * k], maxTree[2 * k + 1]);
+        }
+        updates = 0;
+        dirty = false;
+    }
+
+    private double area(int i) {
+        return (ys[i] + ys[i + 1]) / 2 * (xs[i + 1] - xs[i]);
+    }
+
+    // Сумма площадей интервалов 0 .. k-1
+    private double prefixArea(int k) {
+        double sum = 0;
+        for (; k > 0; k -= k & -k) {
+            sum += fenwick[k];
+        }
+        return sum;
+    }
+
+    private byte direction(int i) {
+        byte direction = 0;
+        if (!(ys[i + 1] <= ys[i])) {
+            direction |= RISING;
+        }
+        if (!(ys[i + 1] >= ys[i])) {
+            direction |= FALLING;
+        }
+        return direction;
+    }
+
+    // Пересчет площади и направления интервала i
+    private void updateInterval(int i) {
+        double delta = area(i) - areas[i];
+        areas[i] += delta;
+        byte direction = direction(i);
+        int rising = (direction & RISING) - (directions[i] & RISING);
+        int falling = ((direction & FALLING) - (directions[i] & FALLING)) >> 1;
+        directions[i] = direction;
+        for (int k = i + 1; k < pointsCount; k += k & -k) {
+            fenwick[k] += delta;
+            risingTree[k] += rising;
+            fallingTree[k] += falling;
+        }
+    }
+
+    // Минимум и максимум Y точек с номерами из [from, to)
+    private double queryMin(int from, int to) {
+        double result = Double.POSITIVE_INFINITY;
+        for (from += pointsCount, to += pointsCount; from < to; from >>= 1, to >>= 1) {
+            if ((from & 1) == 1) {
+                result = Math.min(result, minTree[from++]);
+            }
+            if ((to & 1) == 1) {
+                result = Math.min(result, minTree[--to]);
+            }
+        }
+        return result;
+    }
+
+    private double queryMax(int from, int to) {
+        double result = Double.NEGATIVE_INFINITY;
+        for (from += pointsCount, to += pointsCount; from < to; from >>= 1, to >>= 1) {
+            if ((from & 1) == 1) {
+                result = Math.max(result, maxTree[from++]);
+            }
+            if ((to & 1) == 1) {
+                result = Math.max(result, maxTree[--to]);
+            }
+        }
+        return result;
+    }
+
+    // Точка index изменилась: обновляются площади двух соседних интервалов и путь
+    // от листа к корню в деревьях отрезков
+    private void pointChanged(int index, double x, double y) {
+        if (dirty) {
+            return;
+        }
+        if (++updates > pointsCount) {
+            dirty = true;
+            return;
+        }
+        xs[index] = x;
+        ys[index] = y;
+        if (index > 0) {
+            updateInterval(index - 1);
+        }
+        if (index < pointsCount - 1) {
+            updateInterval(index);
+        }
+        int k = pointsCount + index;
+        minTree[k] = y;
+        maxTree[k] = y;
+        for (k >>= 1; k > 0; k >>= 1) {
+            minTree[k] = Math.min(minTree[2 * k], minTree[2 * k + 1]);
+            maxTree[k] = Math.max(maxTree[2 * k], maxTree[2 * k + 1]);
+        }
+    }
+
+    // Методы интерфейса TabulatedFunction: чтение передается функции без изменений
+
+    public double getLeftDomainBorder() {
+        return function.getLeftDomainBorder();
+    }
+
+    public double getRightDomainBorder() {
+        return function.getRightDomainBorder();
+    }
+
+    public double getFunctionValue(double x) {
+        return function.getFunctionValue(x);
+    }
+
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        function.getFunctionValues(xs, xsOffset, out, outOffset, length);
+    }
+
+    public int getPointsCount() {
+        return function.getPointsCount();
+    }
+
+    public FunctionPoint getPoint(int index) {
+        return function.getPoint(index);
+    }
+
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        function.setPoint(index, point);
+        pointChanged(index, point.getX(), point.getY());
+    }
+
+    public double getPointX(int index) {
+        return function.getPointX(index);
+    }
+
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        function.setPointX(index, x);
+        pointChanged(index, x, dirty ? 0 : ys[index]);
+    }
+
+    public double getPointY(int index) {
+        return function.getPointY(index);
+    }
+
+    public void setPointY(int index, double y) {
+        function.setPointY(index, y);
+        pointChanged(index, dirty ? 0 : xs[index], y);
+    }
+
+    public void forEachPoint(PointConsumer consumer) {
+        function.forEachPoint(consumer);
+    }
+
+    public PointCursor cursor() {
+        return function.cursor();
+    }
+
+    public void copyXs(double[] dest, int destOffset) {
+        function.copyXs(dest, destOffset);
+    }
+
+    public void copyYs(double[] dest, int destOffset) {
+        function.copyYs(dest, destOffset);
+    }
+
+    public void deletePoint(int index) {
+        function.deletePoint(index);
+        dirty = true;
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        function.addPoint(point);
+        dirty = true;
+    }
+
+    public void addPoints(FunctionPoint[] points) throws InappropriateFunctionPointException {
+        function.addPoints(points);
+        dirty = true;
+    }
+
+    @Override
+    public String toString() {
+        return function.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package functions;
+
+// Ядро линейной интерполяции для пакетного вычисления значений. Интервалы уже
+// найдены вызывающим кодом, а координаты их концов собраны в плотные буферы,
+// поэтому ядру остается только арифметика над соседними элементами массивов
+interface InterpolationKernel {
+    // Минимальный размер пакета, с которого имеет смысл векторная обработка
+    int MIN_LENGTH = 64;
+
+    // Размер порции аргументов, для которой концы интервалов собираются в буферы
+    int CHUNK = 256;
+
+    // Векторное ядро или null, если модуль jdk.incubator.vector не подключен
+    // (запуск без --add-modules jdk.incubator.vector), класс ядра не собран
+    // или ядро отключено свойством -Dfunctions.vector=false
+    InterpolationKernel VECTOR = loadVectorKernel();
+
+    // out[outOffset + k] - значение в точке xs[xsOffset + k] на интервале [x1[k], x2[k]]
+    // со значениями y1[k], y2[k] на концах и наклоном slope[k]: fma(slope, x - x1, y1),
+    // а ближе EPSILON = 1e-10 к узлу - значение в узле (сначала проверяется левый);
+    // вне [leftX, rightX] результат NaN
+    void interpolate(double[] x1, double[] y1, double[] slope, double[] x2, double[] y2,
+                     double leftX, double rightX, double[] xs, int xsOffset, double[] out, int outOffset, int length);
+
+    private static InterpolationKernel loadVectorKernel() {
+        if (!Boolean.parseBoolean(System.getProperty("functions.vector", "true")) ||
+                ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        // Класс загружается по имени: без модуля ссылка на него не должна разрешаться
+        try {
+            return (InterpolationKernel) Class.forName("functions.VectorInterpolationKernel")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
\ No newline at end of file
@@ -1,5 +1,9 @@
 package functions;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.DoubleUnaryOperator;
+
 public class LinkedListTabulatedFunction implements TabulatedFunction {
 
     // Внутренний класс для узла списка
@@ -17,8 +21,23 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
 
     private FunctionNode head; // Голова списка (не содержит данных)
     private int pointsCount;
-    private FunctionNode lastAccessedNode; // Кэш для оптимизации доступа
-    private int lastAccessedIndex;
+
+    // Кэш последнего использованного узла для оптимизации доступа. Обычно он один
+    // на объект; после confineCacheToThreads() у каждого потока свой кэш, а
+    // структурные изменения списка сбрасывают кэши всех потоков через modCount
+    private static class AccessCache {
+        FunctionNode node;
+        int index = -1;
+        int modCount;
+    }
+
+    private final AccessCache sharedCache = new AccessCache();
+    private ThreadLocal<AccessCache> threadCaches;
+    private int modCount;
+
+    // Признак равномерной сетки: пока X не менялись, номер интервала вычисляется без поиска
+    private boolean uniformGrid;
+    private double gridStep;
 
     private static final double EPSILON = 1e-10;
 
@@ -41,6 +60,8 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
             double x = leftX + i * step;
             addNodeToTail(new FunctionPoint(x, 0));
         }
+        this.uniformGrid = true;
+        this.gridStep = step;
     }
 
     public LinkedListTabulatedFunction(double leftX, double rightX, double[] values) {
@@ -52,29 +73,161 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
         }
     }
 
+    // Конструктор для уже проверенных данных (X строго возрастают, точек не менее двух)
+    LinkedListTabulatedFunction(double[] xValues, double[] yValues, int pointsCount, boolean uniformGrid) {
+        head = new FunctionNode(null);
+        FunctionNode tail = head;
+        for (int i = 0; i < pointsCount; i++) {
+            FunctionNode node = new FunctionNode(new FunctionPoint(xValues[i], yValues[i]));
+            node.prev = tail;
+            tail.next = node;
+            tail = node;
+        }
+        tail.next = head;
+        head.prev = tail;
+
+        this.pointsCount = pointsCount;
+        this.uniformGrid = uniformGrid;
+        this.gridStep = (xValues[pointsCount - 1] - xValues[0]) / (pointsCount - 1);
+    }
+
+    // Параллельное табулирование (см. TabulatedFunctions.tabulateLinkedList): каждая
+    // подзадача создает узлы своего участка сетки, участки сшиваются при объединении
+    static LinkedListTabulatedFunction tabulate(DoubleUnaryOperator f, double leftX, double rightX,
+                                                int pointsCount, ForkJoinPool pool, int threshold) {
+        double step = (rightX - leftX) / (pointsCount - 1);
+        FunctionNode[] chain = pool.invoke(new TabulateTask(f, leftX, step, 0, pointsCount, threshold));
+
+        LinkedListTabulatedFunction function = new LinkedListTabulatedFunction();
+        FunctionNode head = function.head;
+        head.next = chain[0];
+        chain[0].prev = head;
+        head.prev = chain[1];
+        chain[1].next = head;
+        function.pointsCount = pointsCount;
+        function.uniformGrid = true;
+        function.gridStep = step;
+        return function;
+    }
+
+    // Пустой список с головой, заполняется вызывающим кодом
+    private LinkedListTabulatedFunction() {
+        head = new FunctionNode(null);
+        head.next = head;
+        head.prev = head;
+    }
+
+    // Построение участка [from, to) сетки; результат - первый и последний узлы участка
+    private static class TabulateTask extends RecursiveTask<FunctionNode[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final DoubleUnaryOperator f;
+        private final double leftX;
+        private final double step;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        TabulateTask(DoubleUnaryOperator f, double leftX, double step, int from, int to, int threshold) {
+            this.f = f;
+            this.leftX = leftX;
+            this.step = step;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected FunctionNode[] compute() {
+            if (to - from <= threshold) {
+                FunctionNode first = null;
+                FunctionNode last = null;
+                for (int i = from; i < to; i++) {
+                    double x = leftX + i * step;
+                    FunctionNode node = new FunctionNode(new FunctionPoint(x, f.applyAsDouble(x)));
+                    if (first == null) {
+                        first = node;
+                    } else {
+                        last.next = node;
+                        node.prev = last;
+                    }
+                    last = node;
+                }
+                return new FunctionNode[]{first, last};
+            }
+
+            int middle = (from + to) >>> 1;
+            TabulateTask right = new TabulateTask(f, leftX, step, middle, to, threshold);
+            right.fork();
+            FunctionNode[] leftChain = new TabulateTask(f, leftX, step, from, middle, threshold).compute();
+            FunctionNode[] rightChain = right.join();
+            leftChain[1].next = rightChain[0];
+            rightChain[0].prev = leftChain[1];
+            leftChain[1] = rightChain[1];
+            return leftChain;
+        }
+    }
+
     // Вспомогательные методы для работы со списком
 
+    // Отдельный кэш последнего узла для каждого потока: чтение списка перестает
+    // изменять общее состояние, и читатели могут работать параллельно
+    void confineCacheToThreads() {
+        if (threadCaches == null) {
+            threadCaches = new ThreadLocal<AccessCache>() {
+                @Override
+                protected AccessCache initialValue() {
+                    return new AccessCache();
+                }
+            };
+        }
+    }
+
+    // Кэш текущего потока; устаревший после вставки или удаления сбрасывается
+    private AccessCache accessCache() {
+        AccessCache cache = threadCaches == null ? sharedCache : threadCaches.get();
+        if (cache.modCount != modCount) {
+            cache.node = null;
+            cache.index = -1;
+            cache.modCount = modCount;
+        }
+        return cache;
+    }
+
+    private void remember(FunctionNode node, int index) {
+        AccessCache cache = accessCache();
+        cache.node = node;
+        cache.index = index;
+    }
+
     private FunctionNode getNodeByIndex(int index) {
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException(index);
         }
 
-        // Оптимизация: если обращаемся к тому же или соседнему узлу
-        if (lastAccessedNode != null && lastAccessedIndex != -1) {
-            if (index == lastAccessedIndex) {
-                return lastAccessedNode;
-            } else if (index == lastAccessedIndex + 1 && index < pointsCount) {
-                lastAccessedNode = lastAccessedNode.next;
-                lastAccessedIndex++;
-                return lastAccessedNode;
-            } else if (index == lastAccessedIndex - 1 && index >= 0) {
-                lastAccessedNode = lastAccessedNode.prev;
-                lastAccessedIndex--;
-                return lastAccessedNode;
+        // Оптимизация: если последний использованный узел ближе к нужному, чем концы списка,
+        // идем от него (в том числе к тому же или соседнему узлу)
+        AccessCache cache = accessCache();
+        if (cache.node != null) {
+            int distance = Math.abs(index - cache.index);
+            if (distance <= index && distance <= pointsCount - 1 - index) {
+                FunctionNode current = cache.node;
+                for (int i = cache.index; i < index; i++) {
+                    current = current.next;
+                }
+                for (int i = cache.index; i > index; i--) {
+                    current = current.prev;
+                }
+                cache.node = current;
+                cache.index = index;
+                FunctionInstrumentation.recordCacheAccess(true);
+                FunctionInstrumentation.recordSearchSteps(distance);
+                return current;
             }
         }
+        FunctionInstrumentation.recordCacheAccess(false);
 
-        // Линейный поиск
+        // Линейный поиск от ближайшего конца
         FunctionNode current;
         if (index < pointsCount / 2) {
             // Идем от начала
@@ -89,9 +242,10 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
                 current = current.prev;
             }
         }
+        FunctionInstrumentation.recordSearchSteps(Math.min(index, pointsCount - 1 - index));
 
-        lastAccessedNode = current;
-        lastAccessedIndex = index;
+        cache.node = current;
+        cache.index = index;
         return current;
     }
 
@@ -105,8 +259,8 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
         head.prev = newNode;
 
         pointsCount++;
-        lastAccessedNode = newNode;
-        lastAccessedIndex = pointsCount - 1;
+        modCount++;
+        remember(newNode, pointsCount - 1);
 
         return newNode;
     }
@@ -145,8 +299,8 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
         nextNode.prev = newNode;
 
         pointsCount++;
-        lastAccessedNode = newNode;
-        lastAccessedIndex = index;
+        modCount++;
+        remember(newNode, index);
 
         return newNode;
     }
@@ -167,18 +321,25 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
         nextNode.prev = prevNode;
 
         pointsCount--;
+        modCount++;
 
-        // Сбрасываем кэш, если удалили его элемент
-        if (lastAccessedNode == nodeToDelete) {
-            lastAccessedNode = null;
-            lastAccessedIndex = -1;
-        } else if (lastAccessedIndex > index) {
-            lastAccessedIndex--;
+        // Кэш сброшен; запоминаем соседний узел, чтобы следующее обращение рядом было быстрым
+        if (prevNode != head) {
+            remember(prevNode, index - 1);
         }
 
         return nodeToDelete;
     }
 
+    // Неизменяемый снимок текущего состояния: точки копируются одним проходом по списку
+    public ImmutableTabulatedFunction snapshot() {
+        double[] xValues = new double[pointsCount];
+        double[] yValues = new double[pointsCount];
+        copyXs(xValues, 0);
+        copyYs(yValues, 0);
+        return new ImmutableTabulatedFunction(xValues, yValues, pointsCount, uniformGrid, gridStep);
+    }
+
     // Методы интерфейса TabulatedFunction
 
     public double getLeftDomainBorder() {
@@ -190,16 +351,47 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
     }
 
     public double getFunctionValue(double x) {
+        FunctionInstrumentation.recordEvaluations(1);
         if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
             return Double.NaN;
         }
 
-        // Поиск интервала
+        // Поиск интервала начинаем с последнего использованного узла:
+        // при близких последовательных запросах проход получается коротким.
+        // На равномерной сетке номер интервала известен заранее, и к узлу
+        // идем кратчайшим путем
         FunctionNode current = head.next;
-        while (current != head && current.next != head && current.next.point.getX() < x) {
+        int index = 0;
+        if (uniformGrid) {
+            index = Math.min((int) ((x - getLeftDomainBorder()) / gridStep), pointsCount - 2);
+            current = getNodeByIndex(index);
+        } else {
+            AccessCache cache = accessCache();
+            if (cache.node != null) {
+                current = cache.node;
+                index = cache.index;
+            }
+            FunctionInstrumentation.recordCacheAccess(cache.node != null);
+        }
+        int steps = 0;
+        while (current.prev != head && current.point.getX() >= x) {
+            current = current.prev;
+            index--;
+            steps++;
+        }
+        while (current.next != head && current.next.point.getX() < x) {
             current = current.next;
+            index++;
+            steps++;
         }
+        FunctionInstrumentation.recordSearchSteps(steps);
+        remember(current, index);
 
+        return interpolate(current, x);
+    }
+
+    // Значение на интервале, начинающемся в узле current; x лежит в области определения
+    private double interpolate(FunctionNode current, double x) {
         if (doubleEquals(current.point.getX(), x)) {
             return current.point.getY();
         }
@@ -216,6 +408,51 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
         return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
     }
 
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        if (xsOffset < 0 || outOffset < 0 || length < 0 ||
+                xsOffset > xs.length - length || outOffset > out.length - length) {
+            throw new IndexOutOfBoundsException("Диапазон выходит за границы массива");
+        }
+
+        if (!isSorted(xs, xsOffset, length)) {
+            for (int k = 0; k < length; k++) {
+                out[outOffset + k] = getFunctionValue(xs[xsOffset + k]);
+            }
+            return;
+        }
+
+        // Аргументы упорядочены: список проходится один раз за весь пакет
+        double leftX = getLeftDomainBorder();
+        double rightX = getRightDomainBorder();
+        FunctionNode current = head.next;
+        int index = 0;
+        for (int k = 0; k < length; k++) {
+            double x = xs[xsOffset + k];
+            if (x < leftX || x > rightX) {
+                out[outOffset + k] = Double.NaN;
+                continue;
+            }
+            while (current.next != head && current.next.point.getX() < x) {
+                current = current.next;
+                index++;
+            }
+            out[outOffset + k] = interpolate(current, x);
+        }
+        remember(current, index);
+        FunctionInstrumentation.recordEvaluations(length);
+        FunctionInstrumentation.recordSearchSteps(index);
+    }
+
+    // Проверка, что аргументы идут по неубыванию (NaN нарушает порядок)
+    private static boolean isSorted(double[] xs, int offset, int length) {
+        for (int k = offset + 1; k < offset + length; k++) {
+            if (!(xs[k - 1] <= xs[k])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public int getPointsCount() {
         return pointsCount;
     }
@@ -234,6 +471,9 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
             throw new InappropriateFunctionPointException("Нарушение порядка точек по X");
         }
 
+        if (node.point.getX() != newX) {
+            uniformGrid = false;
+        }
         node.point = new FunctionPoint(point);
     }
 
@@ -249,6 +489,9 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
             throw new InappropriateFunctionPointException("Нарушение порядка точек по X");
         }
 
+        if (node.point.getX() != x) {
+            uniformGrid = false;
+        }
         node.point.setX(x);
     }
 
@@ -260,8 +503,73 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
         getNodeByIndex(index).point.setY(y);
     }
 
+    // Обход и выгрузка точек одним проходом по списку, без обращений по индексу
+    public void forEachPoint(PointConsumer consumer) {
+        FunctionNode current = head.next;
+        for (int i = 0; i < pointsCount; i++) {
+            consumer.accept(current.point.getX(), current.point.getY());
+            current = current.next;
+        }
+    }
+
+    public PointCursor cursor() {
+        return new PointCursor() {
+            private FunctionNode current = head;
+            private int index = -1;
+
+            public boolean next() {
+                if (index + 1 >= pointsCount) {
+                    return false;
+                }
+                current = current.next;
+                index++;
+                return true;
+            }
+
+            public double getX() {
+                return current.point.getX();
+            }
+
+            public double getY() {
+                return current.point.getY();
+            }
+
+            public void reset() {
+                current = head;
+                index = -1;
+            }
+        };
+    }
+
+    public void copyXs(double[] dest, int destOffset) {
+        if (destOffset < 0 || destOffset > dest.length - pointsCount) {
+            throw new IndexOutOfBoundsException("Массив слишком мал для " + pointsCount + " точек");
+        }
+        FunctionNode current = head.next;
+        for (int i = 0; i < pointsCount; i++) {
+            dest[destOffset + i] = current.point.getX();
+            current = current.next;
+        }
+    }
+
+    public void copyYs(double[] dest, int destOffset) {
+        if (destOffset < 0 || destOffset > dest.length - pointsCount) {
+            throw new IndexOutOfBoundsException("Массив слишком мал для " + pointsCount + " точек");
+        }
+        FunctionNode current = head.next;
+        for (int i = 0; i < pointsCount; i++) {
+            dest[destOffset + i] = current.point.getY();
+            current = current.next;
+        }
+    }
+
     public void deletePoint(int index) {
         deleteNodeByIndex(index);
+        // Удаление крайней точки сохраняет равномерность сетки
+        if (index != 0 && index != pointsCount) {
+            uniformGrid = false;
+        }
+        FunctionInstrumentation.recordDeletion();
     }
 
     public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
@@ -273,12 +581,53 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
             current = current.next;
             insertIndex++;
         }
+        FunctionInstrumentation.recordSearchSteps(insertIndex);
 
         if (current != head && doubleEquals(current.point.getX(), point.getX())) {
             throw new InappropriateFunctionPointException("Точка с таким X уже существует");
         }
 
         addNodeByIndex(insertIndex, point);
+        uniformGrid = false;
+        FunctionInstrumentation.recordInsertions(1);
+    }
+
+    public void addPoints(FunctionPoint[] points) throws InappropriateFunctionPointException {
+        double[][] batch = TabulatedFunctions.sortedBatch(points);
+        double[] xs = batch[0];
+        double[] ys = batch[1];
+
+        // Все точки пакета проверяются до изменения списка одним совместным проходом
+        FunctionNode current = head.next;
+        for (double x : xs) {
+            while (current != head && current.point.getX() < x) {
+                current = current.next;
+            }
+            if ((current != head && current.point.getX() - x < EPSILON) ||
+                    (current.prev != head && x - current.prev.point.getX() < EPSILON)) {
+                throw new InappropriateFunctionPointException("Точка с таким X уже существует");
+            }
+        }
+
+        // Вторым проходом узлы вставляются на свои места
+        current = head.next;
+        for (int k = 0; k < xs.length; k++) {
+            while (current != head && current.point.getX() < xs[k]) {
+                current = current.next;
+            }
+            FunctionNode newNode = new FunctionNode(new FunctionPoint(xs[k], ys[k]));
+            newNode.prev = current.prev;
+            newNode.next = current;
+            current.prev.next = newNode;
+            current.prev = newNode;
+        }
+
+        if (xs.length > 0) {
+            pointsCount += xs.length;
+            modCount++;
+            uniformGrid = false;
+        }
+        FunctionInstrumentation.recordInsertions(xs.length);
     }
 
     private boolean doubleEquals(double a, double b) {
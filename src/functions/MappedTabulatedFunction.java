@@ -0,0 +1,265 @@
+package functions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class MappedTabulatedFunction implements TabulatedFunction {
+    // Точки хранятся подряд парами (x, y) типа double; файлы create и
+    // TabulatedFunctions.writeTabulatedFunction начинаются с заголовка формата.
+    // Отображение разбито на сегменты по 2^26 точек (1 ГиБ), так как один буфер
+    // адресуется только int-смещениями
+    private static final int POINT_BYTES = 16;
+    private static final int SEGMENT_SHIFT = 26;
+    private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+
+    private static final double EPSILON = 1e-10;
+
+    private final MappedByteBuffer[] segments;
+    private final int pointsCount;
+    private final boolean writable;
+
+    // Отображение файла без заголовка целиком; данные не разбираются и не копируются
+    public MappedTabulatedFunction(Path file, boolean writable) throws IOException {
+        this(file, 0, writable);
+    }
+
+    // Отображение файла начиная со смещения offset; заголовок перед offset не
+    // проверяется, файлы TabulatedFunctions открываются через open
+    public MappedTabulatedFunction(Path file, long offset, boolean writable) throws IOException {
+        try (FileChannel channel = writable
+                ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ)) {
+            long dataBytes = channel.size() - offset;
+            if (offset < 0 || dataBytes < 0 || dataBytes % POINT_BYTES != 0) {
+                throw new IllegalArgumentException("Размер файла не соответствует набору точек");
+            }
+            long count = dataBytes / POINT_BYTES;
+            if (count < 2) {
+                throw new IllegalArgumentException("Количество точек должно быть не менее 2");
+            }
+            if (count > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Слишком много точек: " + count);
+            }
+
+            this.pointsCount = (int) count;
+            this.writable = writable;
+            this.segments = map(channel, offset, pointsCount,
+                    writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY);
+        }
+
+        if (getLeftDomainBorder() >= getRightDomainBorder()) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой");
+        }
+    }
+
+    // Отображение файла, записанного TabulatedFunctions.writeTabulatedFunction парами
+    // (x, y): сигнатура, версия и формат проверяются, количество точек сверяется с размером
+    public static MappedTabulatedFunction open(Path file, boolean writable) throws IOException {
+        int count;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            count = TabulatedFunctions.readPairsHeader(channel);
+        }
+        MappedTabulatedFunction function = new MappedTabulatedFunction(file, TabulatedFunctions.HEADER_BYTES, writable);
+        if (function.pointsCount != count) {
+            throw new IOException("Размер файла не соответствует заголовку: " + count + " точек");
+        }
+        return function;
+    }
+
+    // Запись точек функции в новый файл в формате TabulatedFunctions (пары (x, y)
+    // после заголовка) и его отображение для чтения и записи
+    public static MappedTabulatedFunction create(Path file, TabulatedFunction function) throws IOException {
+        int count = function.getPointsCount();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(TabulatedFunctions.HEADER_BYTES);
+            TabulatedFunctions.writeHeader(header, false, count);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+
+            MappedByteBuffer[] segments = map(channel, TabulatedFunctions.HEADER_BYTES, count,
+                    FileChannel.MapMode.READ_WRITE);
+            PointCursor cursor = function.cursor();
+            for (int i = 0; cursor.next(); i++) {
+                MappedByteBuffer segment = segments[i >>> SEGMENT_SHIFT];
+                int position = (i & SEGMENT_MASK) * POINT_BYTES;
+                segment.putDouble(position, cursor.getX());
+                segment.putDouble(position + Double.BYTES, cursor.getY());
+            }
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        }
+        return open(file, true);
+    }
+
+    private static MappedByteBuffer[] map(FileChannel channel, long offset, int count,
+                                          FileChannel.MapMode mode) throws IOException {
+        int segmentsCount = ((count - 1) >>> SEGMENT_SHIFT) + 1;
+        MappedByteBuffer[] segments = new MappedByteBuffer[segmentsCount];
+        for (int s = 0; s < segmentsCount; s++) {
+            long first = (long) s << SEGMENT_SHIFT;
+            long points = Math.min(count - first, 1L << SEGMENT_SHIFT);
+            segments[s] = channel.map(mode, offset + first * POINT_BYTES, points * POINT_BYTES);
+        }
+        return segments;
+    }
+
+    // Запись изменений на диск
+    public void force() {
+        if (writable) {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        }
+    }
+
+    private boolean doubleEquals(double a, double b) {
+        return Math.abs(a - b) < EPSILON;
+    }
+
+    // Чтение и запись координат без проверки индекса
+    private double x(int index) {
+        return segments[index >>> SEGMENT_SHIFT].getDouble((index & SEGMENT_MASK) * POINT_BYTES);
+    }
+
+    private double y(int index) {
+        return segments[index >>> SEGMENT_SHIFT].getDouble((index & SEGMENT_MASK) * POINT_BYTES + Double.BYTES);
+    }
+
+    private void putX(int index, double x) {
+        segments[index >>> SEGMENT_SHIFT].putDouble((index & SEGMENT_MASK) * POINT_BYTES, x);
+    }
+
+    private void putY(int index, double y) {
+        segments[index >>> SEGMENT_SHIFT].putDouble((index & SEGMENT_MASK) * POINT_BYTES + Double.BYTES, y);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException(index);
+        }
+    }
+
+    private void checkWritable() {
+        if (!writable) {
+            throw new UnsupportedOperationException("Функция открыта только для чтения");
+        }
+    }
+
+    // Бинарный поиск: индекс первой точки, X которой не меньше заданного (pointsCount, если таких нет)
+    private int lowerBound(double x) {
+        int low = 0;
+        int high = pointsCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (x(mid) < x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Методы интерфейса TabulatedFunction
+
+    public double getLeftDomainBorder() {
+        return x(0);
+    }
+
+    public double getRightDomainBorder() {
+        return x(pointsCount - 1);
+    }
+
+    public double getFunctionValue(double x) {
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+            return Double.NaN;
+        }
+
+        int i = Math.max(lowerBound(x) - 1, 0);
+        double x1 = x(i);
+        if (doubleEquals(x1, x)) {
+            return y(i);
+        }
+        double x2 = x(i + 1);
+        if (doubleEquals(x2, x)) {
+            return y(i + 1);
+        }
+
+        double y1 = y(i);
+        double y2 = y(i + 1);
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+
+    public int getPointsCount() {
+        return pointsCount;
+    }
+
+    public FunctionPoint getPoint(int index) {
+        checkIndex(index);
+        return new FunctionPoint(x(index), y(index));
+    }
+
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        checkIndex(index);
+        checkWritable();
+        checkOrder(index, point.getX());
+        putX(index, point.getX());
+        putY(index, point.getY());
+    }
+
+    public double getPointX(int index) {
+        checkIndex(index);
+        return x(index);
+    }
+
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        checkIndex(index);
+        checkWritable();
+        checkOrder(index, x);
+        putX(index, x);
+    }
+
+    private void checkOrder(int index, double x) throws InappropriateFunctionPointException {
+        if ((index > 0 && x <= x(index - 1)) ||
+                (index < pointsCount - 1 && x >= x(index + 1))) {
+            throw new InappropriateFunctionPointException("Нарушение порядка точек по X");
+        }
+    }
+
+    public double getPointY(int index) {
+        checkIndex(index);
+        return y(index);
+    }
+
+    public void setPointY(int index, double y) {
+        checkIndex(index);
+        checkWritable();
+        putY(index, y);
+    }
+
+    // Размер отображенного файла фиксирован: добавление и удаление точек не поддерживаются
+    public void deletePoint(int index) {
+        throw new UnsupportedOperationException("Нельзя удалить точку из отображенного файла");
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        throw new UnsupportedOperationException("Нельзя добавить точку в отображенный файл");
+    }
+
+    public void addPoints(FunctionPoint[] points) {
+        throw new UnsupportedOperationException("Нельзя добавить точки в отображенный файл");
+    }
+
+    @Override
+    public String toString() {
+        return "MappedTabulatedFunction [pointsCount=" + pointsCount + ", writable=" + writable + "]";
+    }
+}
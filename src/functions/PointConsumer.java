@@ -0,0 +1,6 @@
+package functions;
+
+// Получатель координат точки, используется при обходе функции без создания объектов
+public interface PointConsumer {
+    void accept(double x, double y);
+}
\ No newline at end of file
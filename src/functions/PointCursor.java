@@ -0,0 +1,16 @@
+package functions;
+
+// Курсор для последовательного обхода точек функции без создания объектов FunctionPoint.
+// Изначально стоит перед первой точкой; после изменения набора точек функции
+// курсор нужно получить заново
+public interface PointCursor {
+    // Переход к следующей точке; false, если точки закончились
+    boolean next();
+
+    double getX();
+
+    double getY();
+
+    // Возврат в начальное положение для повторного обхода
+    void reset();
+}
\ No newline at end of file
@@ -0,0 +1,662 @@
+package functions;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
+
+public class ShardedTabulatedFunction implements TabulatedFunction {
+    // Потокобезопасная табулированная функция, разбитая по X на шарды - непрерывные
+    // участки со своими массивами и своей блокировкой. Вычисление значения и добавление
+    // точки блокируют только шард, которому принадлежит X, поэтому потоки, работающие
+    // с разными участками, не мешают друг другу.
+    // Каждый шард, кроме последнего, хранит копию первой точки следующего шарда, поэтому
+    // интервал на стыке шардов вычисляется целиком внутри левого шарда. Копия меняется
+    // вместе с оригиналом под блокировками обоих шардов. Несколько шардов всегда
+    // блокируются по возрастанию номера, поэтому взаимных блокировок не бывает
+    public static final int DEFAULT_SHARDS_COUNT = 16;
+
+    // Меньше точек в шарде при разбиении не бывает (кроме функции из одного шарда)
+    private static final int MIN_SHARD_POINTS = 16;
+
+    private static final class Shard {
+        final StampedLock lock = new StampedLock();
+        final ArrayTabulatedFunction points;
+        final boolean last;
+
+        // X первой точки - подсказка для выбора шарда без блокировки; меняется под
+        // блокировкой записи, а выбор шарда проверяется уже под его блокировкой
+        volatile double firstX;
+
+        // Шард заменен при перераспределении точек, операцию нужно повторить
+        boolean retired;
+
+        Shard(ArrayTabulatedFunction points, boolean last) {
+            this.points = points;
+            this.last = last;
+            this.firstX = points.getLeftDomainBorder();
+        }
+
+        // Число собственных точек (без копии первой точки следующего шарда)
+        int ownCount() {
+            return last ? points.getPointsCount() : points.getPointsCount() - 1;
+        }
+    }
+
+    private volatile Shard[] shards;
+    private final int maxShardsCount;
+    private final AtomicInteger pointsCount = new AtomicInteger();
+
+    public ShardedTabulatedFunction(double leftX, double rightX, int pointsCount) {
+        this(leftX, rightX, pointsCount, DEFAULT_SHARDS_COUNT);
+    }
+
+    public ShardedTabulatedFunction(double leftX, double rightX, double[] values) {
+        this(leftX, rightX, values, DEFAULT_SHARDS_COUNT);
+    }
+
+    public ShardedTabulatedFunction(double leftX, double rightX, int pointsCount, int shardsCount) {
+        checkArguments(leftX, rightX, pointsCount, shardsCount);
+        this.maxShardsCount = shardsCount;
+        this.shards = split(grid(leftX, rightX, pointsCount), new double[pointsCount], pointsCount, shardsCount, true);
+        this.pointsCount.set(pointsCount);
+    }
+
+    public ShardedTabulatedFunction(double leftX, double rightX, double[] values, int shardsCount) {
+        checkArguments(leftX, rightX, values.length, shardsCount);
+        this.maxShardsCount = shardsCount;
+        this.shards = split(grid(leftX, rightX, values.length), values, values.length, shardsCount, true);
+        this.pointsCount.set(values.length);
+    }
+
+    private static void checkArguments(double leftX, double rightX, int pointsCount, int shardsCount) {
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой");
+        }
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее 2");
+        }
+        if (shardsCount < 1) {
+            throw new IllegalArgumentException("Число шардов должно быть положительным");
+        }
+    }
+
+    private static double[] grid(double leftX, double rightX, int pointsCount) {
+        double[] xs = new double[pointsCount];
+        double step = (rightX - leftX) / (pointsCount - 1);
+        for (int i = 0; i < pointsCount; i++) {
+            xs[i] = leftX + i * step;
+        }
+        return xs;
+    }
+
+    // Разбиение упорядоченных точек на шарды с почти равным числом точек
+    private static Shard[] split(double[] xs, double[] ys, int count, int maxShards, boolean uniform) {
+        int shardsCount = Math.max(1, Math.min(maxShards, count / MIN_SHARD_POINTS));
+        Shard[] result = new Shard[shardsCount];
+        for (int s = 0; s < shardsCount; s++) {
+            int from = (int) ((long) count * s / shardsCount);
+            int to = (int) ((long) count * (s + 1) / shardsCount);
+            boolean last = s == shardsCount - 1;
+            int length = last ? to - from : to - from + 1;
+            double[] shardX = new double[length + 10];
+            double[] shardY = new double[length + 10];
+            System.arraycopy(xs, from, shardX, 0, length);
+            System.arraycopy(ys, from, shardY, 0, length);
+            result[s] = new Shard(new ArrayTabulatedFunction(shardX, shardY, length, uniform), last);
+        }
+        return result;
+    }
+
+    public int getShardsCount() {
+        return shards.length;
+    }
+
+    // Шард, которому по подсказкам принадлежит x: последний с firstX <= x (или первый)
+    private static int route(Shard[] set, double x) {
+        int low = 1;
+        int high = set.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (set[mid].firstX <= x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+
+    // 0, если x принадлежит шарду k, иначе -1 или 1 - направление к нужному шарду.
+    // Все, что левее первого шарда или правее последнего, принадлежит крайнему шарду
+    private static int direction(Shard shard, int k, double x) {
+        if (k > 0 && x < shard.points.getLeftDomainBorder()) {
+            return -1;
+        }
+        if (!shard.last && x > shard.points.getRightDomainBorder()) {
+            return 1;
+        }
+        return 0;
+    }
+
+    // Блокировки для операции с точкой по глобальному номеру. Номер переводится в шард
+    // и номер внутри него по числу точек в шардах, поэтому шарды левее нужного тоже
+    // блокируются (на чтение): пока идет операция, их размер не меняется
+    private static final class IndexLock {
+        final Shard[] set;
+        final long[] stamps;
+        int shard;
+        int local;
+
+        IndexLock(Shard[] set) {
+            this.set = set;
+            this.stamps = new long[set.length];
+        }
+
+        Shard target() {
+            return set[shard];
+        }
+
+        // Шард с копией точки, если точка первая в своем шарде (иначе null)
+        Shard previous() {
+            return local == 0 && shard > 0 ? set[shard - 1] : null;
+        }
+
+        void unlock() {
+            for (int i = stamps.length - 1; i >= 0; i--) {
+                if (stamps[i] != 0) {
+                    set[i].lock.unlock(stamps[i]);
+                }
+            }
+        }
+    }
+
+    // write - шард с точкой блокируется на запись, а если точка в нем первая, то и
+    // предыдущий шард. Шард ищется по числу точек, прочитанному без блокировок,
+    // затем проверяется под блокировками; при расхождении поиск повторяется
+    private IndexLock lockIndex(int index, boolean write) {
+        if (index < 0) {
+            throw new FunctionPointIndexOutOfBoundsException(index);
+        }
+        while (true) {
+            IndexLock result = new IndexLock(shards);
+            Shard[] set = result.set;
+            int k = 0;
+            int prefix = 0;
+            while (k < set.length - 1) {
+                int own = set[k].ownCount();
+                if (index < prefix + own) {
+                    break;
+                }
+                prefix += own;
+                k++;
+            }
+            boolean previousWrite = write && k > 0 && index == prefix;
+            for (int i = 0; i <= k; i++) {
+                boolean exclusive = write && (i == k || (i == k - 1 && previousWrite));
+                result.stamps[i] = exclusive ? set[i].lock.writeLock() : set[i].lock.readLock();
+            }
+
+            if (set[0].retired) {
+                result.unlock();
+                continue;
+            }
+            int actualPrefix = 0;
+            for (int i = 0; i < k; i++) {
+                actualPrefix += set[i].ownCount();
+            }
+            int own = set[k].ownCount();
+            if (index >= actualPrefix + own && k == set.length - 1) {
+                result.unlock();
+                throw new FunctionPointIndexOutOfBoundsException(index);
+            }
+            if (index < actualPrefix || index >= actualPrefix + own ||
+                    (write && k > 0 && index == actualPrefix && !previousWrite)) {
+                result.unlock();
+                continue;
+            }
+            result.shard = k;
+            result.local = index - actualPrefix;
+            return result;
+        }
+    }
+
+    // Блокировка всех шардов по возрастанию номера
+    private static long[] lockAll(Shard[] set, boolean write) {
+        long[] stamps = new long[set.length];
+        for (int i = 0; i < set.length; i++) {
+            stamps[i] = write ? set[i].lock.writeLock() : set[i].lock.readLock();
+        }
+        return stamps;
+    }
+
+    private static void unlockAll(Shard[] set, long[] stamps) {
+        for (int i = set.length - 1; i >= 0; i--) {
+            set[i].lock.unlock(stamps[i]);
+        }
+    }
+
+    // Шард вырос заметно больше среднего: пора перераспределить точки
+    private boolean overgrown(int ownCount) {
+        return ownCount > 2 * Math.max(pointsCount.get() / maxShardsCount, MIN_SHARD_POINTS);
+    }
+
+    // Перераспределение точек поровну между новыми шардами; skipIndex >= 0 - номер точки,
+    // которая при этом удаляется. Блокирует все шарды, поэтому выполняется редко: при
+    // перекосе размеров шардов и при удалении точки, без которой шард не может остаться
+    private void rebuild(int skipIndex) {
+        while (true) {
+            Shard[] set = shards;
+            long[] stamps = lockAll(set, true);
+            try {
+                if (set[0].retired) {
+                    if (skipIndex < 0) {
+                        return; // Точки уже перераспределены другим потоком
+                    }
+                    continue;
+                }
+                int count = 0;
+                int largest = 0;
+                for (Shard shard : set) {
+                    count += shard.ownCount();
+                    largest = Math.max(largest, shard.ownCount());
+                }
+                if (skipIndex < 0 && !overgrown(largest)) {
+                    return;
+                }
+                if (skipIndex >= count) {
+                    throw new FunctionPointIndexOutOfBoundsException(skipIndex);
+                }
+                if (skipIndex >= 0 && count < 3) {
+                    throw new IllegalStateException("Нельзя удалить точку: должно остаться минимум 2 точки");
+                }
+
+                double[] xs = new double[count];
+                double[] ys = new double[count];
+                gather(set, xs, ys, 0);
+                if (skipIndex >= 0) {
+                    System.arraycopy(xs, skipIndex + 1, xs, skipIndex, count - skipIndex - 1);
+                    System.arraycopy(ys, skipIndex + 1, ys, skipIndex, count - skipIndex - 1);
+                    count--;
+                }
+                shards = split(xs, ys, count, maxShardsCount, false);
+                for (Shard shard : set) {
+                    shard.retired = true;
+                }
+                if (skipIndex >= 0) {
+                    pointsCount.decrementAndGet();
+                }
+                return;
+            } finally {
+                unlockAll(set, stamps);
+            }
+        }
+    }
+
+    // Копирование точек всех шардов (шарды заблокированы). Шард копирует и копию
+    // первой точки следующего шарда, но ее тут же перезаписывает следующий шард
+    // тем же значением, поэтому выход за свою часть массива безопасен
+    private static void gather(Shard[] set, double[] xs, double[] ys, int offset) {
+        for (Shard shard : set) {
+            if (xs != null) {
+                shard.points.copyXs(xs, offset);
+            }
+            if (ys != null) {
+                shard.points.copyYs(ys, offset);
+            }
+            offset += shard.ownCount();
+        }
+    }
+
+    // Методы интерфейса TabulatedFunction
+
+    public double getLeftDomainBorder() {
+        while (true) {
+            Shard shard = shards[0];
+            long stamp = shard.lock.readLock();
+            try {
+                if (!shard.retired) {
+                    return shard.points.getLeftDomainBorder();
+                }
+            } finally {
+                shard.lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    public double getRightDomainBorder() {
+        while (true) {
+            Shard[] set = shards;
+            Shard shard = set[set.length - 1];
+            long stamp = shard.lock.readLock();
+            try {
+                if (!shard.retired) {
+                    return shard.points.getRightDomainBorder();
+                }
+            } finally {
+                shard.lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    // Чтение в шарде сначала выполняется оптимистически, без блокировки, как в
+    // ConcurrentTabulatedFunction; если шард выбран неверно, переходим к соседнему
+    public double getFunctionValue(double x) {
+        Shard[] set = shards;
+        int k = route(set, x);
+        while (true) {
+            Shard shard = set[k];
+            long stamp = shard.lock.tryOptimisticRead();
+            try {
+                boolean retired = shard.retired;
+                int direction = direction(shard, k, x);
+                double value = direction == 0 ? shard.points.getFunctionValue(x) : Double.NaN;
+                if (shard.lock.validate(stamp)) {
+                    if (retired) {
+                        set = shards;
+                        k = route(set, x);
+                    } else if (direction != 0) {
+                        k += direction;
+                    } else {
+                        return value;
+                    }
+                    continue;
+                }
+            } catch (RuntimeException e) {
+                // Данные менялись во время чтения, повторяем под блокировкой
+            }
+
+            stamp = shard.lock.readLock();
+            try {
+                if (shard.retired) {
+                    set = shards;
+                    k = route(set, x);
+                    continue;
+                }
+                int direction = direction(shard, k, x);
+                if (direction == 0) {
+                    return shard.points.getFunctionValue(x);
+                }
+                k += direction;
+            } finally {
+                shard.lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    public int getPointsCount() {
+        return pointsCount.get();
+    }
+
+    public FunctionPoint getPoint(int index) {
+        IndexLock lock = lockIndex(index, false);
+        try {
+            return lock.target().points.getPoint(lock.local);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        updatePoint(index, point.getX(), point.getY(), true);
+    }
+
+    public double getPointX(int index) {
+        IndexLock lock = lockIndex(index, false);
+        try {
+            return lock.target().points.getPointX(lock.local);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        updatePoint(index, x, 0, false);
+    }
+
+    // Изменение X точки (и Y, если changeY); у первой точки шарда меняется и ее копия
+    private void updatePoint(int index, double x, double y, boolean changeY) throws InappropriateFunctionPointException {
+        IndexLock lock = lockIndex(index, true);
+        try {
+            ArrayTabulatedFunction points = lock.target().points;
+            Shard previous = lock.previous();
+            // Левый сосед первой точки шарда - последняя собственная точка предыдущего шарда
+            double leftX = lock.local > 0 ? points.getPointX(lock.local - 1)
+                    : previous != null ? previous.points.getPointX(previous.points.getPointsCount() - 2)
+                    : Double.NEGATIVE_INFINITY;
+            double rightX = lock.local < points.getPointsCount() - 1 ? points.getPointX(lock.local + 1)
+                    : Double.POSITIVE_INFINITY;
+            if (!(x > leftX && x < rightX)) {
+                throw new InappropriateFunctionPointException("Нарушение порядка точек по X");
+            }
+
+            FunctionPoint point = new FunctionPoint(x, changeY ? y : points.getPointY(lock.local));
+            points.setPoint(lock.local, point);
+            if (previous != null) {
+                previous.points.setPoint(previous.points.getPointsCount() - 1, point);
+            }
+            if (lock.local == 0) {
+                lock.target().firstX = x;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getPointY(int index) {
+        IndexLock lock = lockIndex(index, false);
+        try {
+            return lock.target().points.getPointY(lock.local);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void setPointY(int index, double y) {
+        IndexLock lock = lockIndex(index, true);
+        try {
+            lock.target().points.setPointY(lock.local, y);
+            Shard previous = lock.previous();
+            if (previous != null) {
+                previous.points.setPointY(previous.points.getPointsCount() - 1, y);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Обход и выгрузка выполняются целиком под блокировками чтения всех шардов,
+    // поэтому consumer не должен изменять эту же функцию. Курсор не переопределен:
+    // каждый его шаг - отдельное чтение по индексу
+    public void forEachPoint(PointConsumer consumer) {
+        while (true) {
+            Shard[] set = shards;
+            long[] stamps = lockAll(set, false);
+            try {
+                if (set[0].retired) {
+                    continue;
+                }
+                for (Shard shard : set) {
+                    int own = shard.ownCount();
+                    for (int i = 0; i < own; i++) {
+                        consumer.accept(shard.points.getPointX(i), shard.points.getPointY(i));
+                    }
+                }
+                return;
+            } finally {
+                unlockAll(set, stamps);
+            }
+        }
+    }
+
+    public void copyXs(double[] dest, int destOffset) {
+        copyPoints(dest, null, destOffset);
+    }
+
+    public void copyYs(double[] dest, int destOffset) {
+        copyPoints(null, dest, destOffset);
+    }
+
+    private void copyPoints(double[] xs, double[] ys, int destOffset) {
+        double[] dest = xs != null ? xs : ys;
+        while (true) {
+            Shard[] set = shards;
+            long[] stamps = lockAll(set, false);
+            try {
+                if (set[0].retired) {
+                    continue;
+                }
+                int count = 0;
+                for (Shard shard : set) {
+                    count += shard.ownCount();
+                }
+                if (destOffset < 0 || destOffset > dest.length - count) {
+                    throw new IndexOutOfBoundsException("Массив слишком мал для " + count + " точек");
+                }
+                gather(set, xs, ys, destOffset);
+                return;
+            } finally {
+                unlockAll(set, stamps);
+            }
+        }
+    }
+
+    public void deletePoint(int index) {
+        IndexLock lock = lockIndex(index, true);
+        boolean deleted = false;
+        try {
+            ArrayTabulatedFunction points = lock.target().points;
+            // Шард из двух точек (у непоследнего - одна своя и копия) сам точку не отдает
+            if (points.getPointsCount() > 2) {
+                points.deletePoint(lock.local);
+                Shard previous = lock.previous();
+                if (previous != null) {
+                    previous.points.setPoint(previous.points.getPointsCount() - 1, points.getPoint(0));
+                }
+                if (lock.local == 0) {
+                    lock.target().firstX = points.getLeftDomainBorder();
+                }
+                pointsCount.decrementAndGet();
+                deleted = true;
+            }
+        } catch (InappropriateFunctionPointException e) {
+            throw new IllegalStateException(e); // Копия точки всегда правее предыдущих точек
+        } finally {
+            lock.unlock();
+        }
+        if (!deleted) {
+            rebuild(index);
+        }
+    }
+
+    // Точка добавляется в шард, которому принадлежит ее X, под блокировкой только этого шарда
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        double x = point.getX();
+        if (Double.isNaN(x)) {
+            throw new InappropriateFunctionPointException("X точки не может быть NaN");
+        }
+        Shard[] set = shards;
+        int k = route(set, x);
+        int ownCount;
+        while (true) {
+            Shard shard = set[k];
+            long stamp = shard.lock.writeLock();
+            try {
+                if (shard.retired) {
+                    set = shards;
+                    k = route(set, x);
+                    continue;
+                }
+                int direction = direction(shard, k, x);
+                if (direction != 0) {
+                    k += direction;
+                    continue;
+                }
+                shard.points.addPoint(point);
+                if (k == 0) {
+                    shard.firstX = shard.points.getLeftDomainBorder();
+                }
+                ownCount = shard.ownCount();
+                pointsCount.incrementAndGet();
+                break;
+            } finally {
+                shard.lock.unlockWrite(stamp);
+            }
+        }
+        if (overgrown(ownCount)) {
+            rebuild(-1);
+        }
+    }
+
+    // Пакет проверяется и добавляется под блокировками всех шардов: либо добавляются
+    // все точки, либо ни одной
+    public void addPoints(FunctionPoint[] points) throws InappropriateFunctionPointException {
+        double[][] batch = TabulatedFunctions.sortedBatch(points);
+        double[] xs = batch[0];
+        double[] ys = batch[1];
+        int largest = 0;
+        while (true) {
+            Shard[] set = shards;
+            long[] stamps = lockAll(set, true);
+            try {
+                if (set[0].retired) {
+                    continue;
+                }
+                // Под блокировками подсказки firstX точны, и шард находится сразу
+                for (double x : xs) {
+                    TabulatedFunctions.checkNotExisting(set[owner(set, x)].points, x);
+                }
+                for (int i = 0; i < xs.length; i++) {
+                    Shard shard = set[owner(set, xs[i])];
+                    shard.points.addPoint(new FunctionPoint(xs[i], ys[i]));
+                    shard.firstX = shard.points.getLeftDomainBorder();
+                }
+                for (Shard shard : set) {
+                    largest = Math.max(largest, shard.ownCount());
+                }
+                pointsCount.addAndGet(xs.length);
+                break;
+            } finally {
+                unlockAll(set, stamps);
+            }
+        }
+        if (overgrown(largest)) {
+            rebuild(-1);
+        }
+    }
+
+    // Шард, которому принадлежит x, когда все шарды заблокированы
+    private static int owner(Shard[] set, double x) {
+        int k = route(set, x);
+        int direction;
+        while ((direction = direction(set[k], k, x)) != 0) {
+            k += direction;
+        }
+        return k;
+    }
+
+    @Override
+    public String toString() {
+        while (true) {
+            Shard[] set = shards;
+            long[] stamps = lockAll(set, false);
+            try {
+                if (set[0].retired) {
+                    continue;
+                }
+                StringBuilder sb = new StringBuilder();
+                sb.append("ShardedTabulatedFunction [pointsCount=").append(pointsCount.get())
+                        .append(", shardsCount=").append(set.length).append("]\n");
+                int index = 0;
+                for (Shard shard : set) {
+                    int own = shard.ownCount();
+                    for (int i = 0; i < own; i++) {
+                        sb.append(String.format("  [%d] x=%.3f, y=%.3f%n", index++,
+                                shard.points.getPointX(i), shard.points.getPointY(i)));
+                    }
+                }
+                return sb.toString();
+            } finally {
+                unlockAll(set, stamps);
+            }
+        }
+    }
+}
\ No newline at end of file
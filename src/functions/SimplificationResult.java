@@ -0,0 +1,43 @@
+package functions;
+
+public final class SimplificationResult {
+    // Результат прореживания функции: новая функция и достигнутые показатели
+    private final TabulatedFunction function;
+    private final int originalPointsCount;
+    private final double maxError;
+
+    SimplificationResult(TabulatedFunction function, int originalPointsCount, double maxError) {
+        this.function = function;
+        this.originalPointsCount = originalPointsCount;
+        this.maxError = maxError;
+    }
+
+    public TabulatedFunction getFunction() {
+        return function;
+    }
+
+    public int getOriginalPointsCount() {
+        return originalPointsCount;
+    }
+
+    public int getPointsCount() {
+        return function.getPointsCount();
+    }
+
+    // Наибольшее отклонение новой функции от исходной в точках исходной функции
+    public double getMaxError() {
+        return maxError;
+    }
+
+    // Во сколько раз уменьшилось число точек
+    public double getReductionRatio() {
+        return (double) originalPointsCount / function.getPointsCount();
+    }
+
+    @Override
+    public String toString() {
+        return "SimplificationResult [originalPointsCount=" + originalPointsCount +
+                ", pointsCount=" + getPointsCount() + ", maxError=" + maxError +
+                ", reductionRatio=" + String.format("%.2f", getReductionRatio()) + "]";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,411 @@
+package functions;
+
+public class SkipListTabulatedFunction implements TabulatedFunction {
+
+    // Узел индексируемого списка с пропусками. span[i] хранит, на сколько позиций
+    // вперед ведет ссылка next[i]; у последнего узла уровня это расстояние до конца
+    private static class SkipNode {
+        double x;
+        double y;
+        final SkipNode[] next;
+        final int[] span;
+
+        SkipNode(double x, double y, int level) {
+            this.x = x;
+            this.y = y;
+            this.next = new SkipNode[level];
+            this.span = new int[level];
+        }
+    }
+
+    private static final int MAX_LEVEL = 16;
+    private static final double EPSILON = 1e-10;
+
+    private final SkipNode head; // Голова списка (не содержит данных)
+    private SkipNode tail;
+    private int level;
+    private int pointsCount;
+    private long randomState;
+
+    // Буферы для поиска позиции вставки и удаления, чтобы не выделять их на каждый вызов
+    private final SkipNode[] update = new SkipNode[MAX_LEVEL];
+    private final int[] rank = new int[MAX_LEVEL];
+
+    public SkipListTabulatedFunction(double leftX, double rightX, int pointsCount) {
+        this(leftX, rightX, new double[checkPointsCount(pointsCount)]);
+    }
+
+    public SkipListTabulatedFunction(double leftX, double rightX, double[] values) {
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой");
+        }
+        checkPointsCount(values.length);
+
+        head = new SkipNode(Double.NaN, Double.NaN, MAX_LEVEL);
+        level = 1;
+        randomState = System.nanoTime() | 1;
+
+        // Точки идут по возрастанию X, поэтому список строится одним проходом:
+        // для каждого уровня помним последний узел и его позицию
+        SkipNode[] last = new SkipNode[MAX_LEVEL];
+        int[] lastRank = new int[MAX_LEVEL];
+        for (int i = 0; i < MAX_LEVEL; i++) {
+            last[i] = head;
+        }
+
+        double step = (rightX - leftX) / (values.length - 1);
+        for (int i = 0; i < values.length; i++) {
+            int nodeLevel = randomLevel();
+            if (nodeLevel > level) {
+                level = nodeLevel;
+            }
+            SkipNode node = new SkipNode(leftX + i * step, values[i], nodeLevel);
+            for (int j = 0; j < nodeLevel; j++) {
+                last[j].next[j] = node;
+                last[j].span[j] = i + 1 - lastRank[j];
+                last[j] = node;
+                lastRank[j] = i + 1;
+            }
+        }
+        for (int j = 0; j < level; j++) {
+            last[j].span[j] = values.length - lastRank[j];
+        }
+
+        this.pointsCount = values.length;
+        this.tail = last[0];
+    }
+
+    private static int checkPointsCount(int pointsCount) {
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее 2");
+        }
+        return pointsCount;
+    }
+
+    private boolean doubleEquals(double a, double b) {
+        return Math.abs(a - b) < EPSILON;
+    }
+
+    // Уровень нового узла: каждый следующий уровень с вероятностью 1/4
+    private int randomLevel() {
+        randomState ^= randomState << 13;
+        randomState ^= randomState >>> 7;
+        randomState ^= randomState << 17;
+        int nodeLevel = 1 + Long.numberOfTrailingZeros(randomState) / 2;
+        return Math.min(nodeLevel, MAX_LEVEL);
+    }
+
+    // Вспомогательные методы для работы со списком
+
+    private SkipNode getNodeByIndex(int index) {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException(index);
+        }
+
+        int target = index + 1;
+        int traversed = 0;
+        int steps = 0;
+        SkipNode current = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (current.next[i] != null && traversed + current.span[i] <= target) {
+                traversed += current.span[i];
+                current = current.next[i];
+                steps++;
+            }
+            if (traversed == target) {
+                break;
+            }
+        }
+        FunctionInstrumentation.recordSearchSteps(steps);
+        return current;
+    }
+
+    // Последний узел с X меньше заданного (голова, если таких нет)
+    private SkipNode findLastBefore(double x) {
+        SkipNode current = head;
+        int steps = 0;
+        for (int i = level - 1; i >= 0; i--) {
+            while (current.next[i] != null && current.next[i].x < x) {
+                current = current.next[i];
+                steps++;
+            }
+        }
+        FunctionInstrumentation.recordSearchSteps(steps);
+        return current;
+    }
+
+    // Методы интерфейса TabulatedFunction
+
+    public double getLeftDomainBorder() {
+        return head.next[0].x;
+    }
+
+    public double getRightDomainBorder() {
+        return tail.x;
+    }
+
+    public double getFunctionValue(double x) {
+        FunctionInstrumentation.recordEvaluations(1);
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+            return Double.NaN;
+        }
+
+        SkipNode current = findLastBefore(x);
+        if (current == head) {
+            current = head.next[0];
+        }
+        return interpolate(current, x);
+    }
+
+    // Значение на интервале, начинающемся в узле current; x лежит в области определения
+    private double interpolate(SkipNode current, double x) {
+        if (doubleEquals(current.x, x)) {
+            return current.y;
+        }
+        SkipNode next = current.next[0];
+        if (next != null && doubleEquals(next.x, x)) {
+            return next.y;
+        }
+
+        return current.y + (next.y - current.y) * (x - current.x) / (next.x - current.x);
+    }
+
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        if (xsOffset < 0 || outOffset < 0 || length < 0 ||
+                xsOffset > xs.length - length || outOffset > out.length - length) {
+            throw new IndexOutOfBoundsException("Диапазон выходит за границы массива");
+        }
+
+        if (!isSorted(xs, xsOffset, length)) {
+            for (int k = 0; k < length; k++) {
+                out[outOffset + k] = getFunctionValue(xs[xsOffset + k]);
+            }
+            return;
+        }
+
+        // Аргументы упорядочены: нижний уровень списка проходится один раз за весь пакет
+        double leftX = getLeftDomainBorder();
+        double rightX = getRightDomainBorder();
+        SkipNode current = head.next[0];
+        int steps = 0;
+        for (int k = 0; k < length; k++) {
+            double x = xs[xsOffset + k];
+            if (x < leftX || x > rightX) {
+                out[outOffset + k] = Double.NaN;
+                continue;
+            }
+            while (current.next[0] != null && current.next[0].x < x) {
+                current = current.next[0];
+                steps++;
+            }
+            out[outOffset + k] = interpolate(current, x);
+        }
+        FunctionInstrumentation.recordEvaluations(length);
+        FunctionInstrumentation.recordSearchSteps(steps);
+    }
+
+    // Проверка, что аргументы идут по неубыванию (NaN нарушает порядок)
+    private static boolean isSorted(double[] xs, int offset, int length) {
+        for (int k = offset + 1; k < offset + length; k++) {
+            if (!(xs[k - 1] <= xs[k])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getPointsCount() {
+        return pointsCount;
+    }
+
+    public FunctionPoint getPoint(int index) {
+        SkipNode node = getNodeByIndex(index);
+        return new FunctionPoint(node.x, node.y);
+    }
+
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        SkipNode node = getNodeByIndex(index);
+        checkOrder(index, node, point.getX());
+        node.x = point.getX();
+        node.y = point.getY();
+    }
+
+    public double getPointX(int index) {
+        return getNodeByIndex(index).x;
+    }
+
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        SkipNode node = getNodeByIndex(index);
+        checkOrder(index, node, x);
+        node.x = x;
+    }
+
+    // Новый X должен остаться строго между соседними точками
+    private void checkOrder(int index, SkipNode node, double x) throws InappropriateFunctionPointException {
+        if ((index > 0 && x <= getNodeByIndex(index - 1).x) ||
+                (node.next[0] != null && x >= node.next[0].x)) {
+            throw new InappropriateFunctionPointException("Нарушение порядка точек по X");
+        }
+    }
+
+    public double getPointY(int index) {
+        return getNodeByIndex(index).y;
+    }
+
+    public void setPointY(int index, double y) {
+        getNodeByIndex(index).y = y;
+    }
+
+    // Обход и выгрузка точек по нижнему уровню списка
+    public void forEachPoint(PointConsumer consumer) {
+        for (SkipNode current = head.next[0]; current != null; current = current.next[0]) {
+            consumer.accept(current.x, current.y);
+        }
+    }
+
+    public PointCursor cursor() {
+        return new PointCursor() {
+            private SkipNode current = head;
+
+            public boolean next() {
+                if (current.next[0] == null) {
+                    return false;
+                }
+                current = current.next[0];
+                return true;
+            }
+
+            public double getX() {
+                return current.x;
+            }
+
+            public double getY() {
+                return current.y;
+            }
+
+            public void reset() {
+                current = head;
+            }
+        };
+    }
+
+    public void copyXs(double[] dest, int destOffset) {
+        if (destOffset < 0 || destOffset > dest.length - pointsCount) {
+            throw new IndexOutOfBoundsException("Массив слишком мал для " + pointsCount + " точек");
+        }
+        int i = destOffset;
+        for (SkipNode current = head.next[0]; current != null; current = current.next[0]) {
+            dest[i++] = current.x;
+        }
+    }
+
+    public void copyYs(double[] dest, int destOffset) {
+        if (destOffset < 0 || destOffset > dest.length - pointsCount) {
+            throw new IndexOutOfBoundsException("Массив слишком мал для " + pointsCount + " точек");
+        }
+        int i = destOffset;
+        for (SkipNode current = head.next[0]; current != null; current = current.next[0]) {
+            dest[i++] = current.y;
+        }
+    }
+
+    public void deletePoint(int index) {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException(index);
+        }
+        if (pointsCount < 3) {
+            throw new IllegalStateException("Нельзя удалить точку: должно остаться минимум 2 точки");
+        }
+
+        // На каждом уровне ищем последний узел перед удаляемым
+        int target = index + 1;
+        int traversed = 0;
+        SkipNode current = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (current.next[i] != null && traversed + current.span[i] < target) {
+                traversed += current.span[i];
+                current = current.next[i];
+            }
+            update[i] = current;
+        }
+
+        SkipNode node = update[0].next[0];
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == node) {
+                update[i].span[i] += node.span[i] - 1;
+                update[i].next[i] = node.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        if (node == tail) {
+            tail = update[0];
+        }
+        pointsCount--;
+        FunctionInstrumentation.recordDeletion();
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        double x = point.getX();
+
+        // На каждом уровне ищем последний узел перед позицией вставки и его номер
+        SkipNode current = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = (i == level - 1) ? 0 : rank[i + 1];
+            while (current.next[i] != null && current.next[i].x < x) {
+                rank[i] += current.span[i];
+                current = current.next[i];
+            }
+            update[i] = current;
+        }
+
+        SkipNode next = current.next[0];
+        if (next != null && doubleEquals(next.x, x)) {
+            throw new InappropriateFunctionPointException("Точка с таким X уже существует");
+        }
+
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = pointsCount;
+            }
+            level = nodeLevel;
+        }
+
+        SkipNode node = new SkipNode(x, point.getY(), nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+
+        if (node.next[0] == null) {
+            tail = node;
+        }
+        pointsCount++;
+        FunctionInstrumentation.recordInsertions(1);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("SkipListTabulatedFunction [pointsCount=").append(pointsCount).append("]\n");
+        SkipNode current = head.next[0];
+        int i = 0;
+        while (current != null) {
+            sb.append(String.format("  [%d] x=%.3f, y=%.3f%n", i, current.x, current.y));
+            current = current.next[0];
+            i++;
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,372 @@
+package functions;
+
+public class SlidingWindowTabulatedFunction implements TabulatedFunction {
+    // Табулированная функция для потока измерений: точки добавляются только справа
+    // (append), а самые старые вытесняются слева, когда окно превышает заданное
+    // число точек или ширину по X. Точки хранятся в кольцевом буфере, поэтому
+    // добавление и вытеснение выполняются за O(1) без сдвига массивов
+    private static final double EPSILON = 1e-10;
+
+    private double[] xValues;
+    private double[] yValues;
+    private int head; // Положение первой точки окна в буфере
+    private int pointsCount;
+
+    private final int maxPointsCount;
+    private final double maxWidth;
+
+    // Окно без ограничения по числу точек - Integer.MAX_VALUE, без ограничения
+    // по ширине - Double.POSITIVE_INFINITY. Окно создается пустым; при вытеснении
+    // по ширине в нем может остаться одна последняя точка
+    public SlidingWindowTabulatedFunction(int maxPointsCount, double maxWidth) {
+        if (maxPointsCount < 2) {
+            throw new IllegalArgumentException("Окно должно вмещать не менее 2 точек");
+        }
+        if (!(maxWidth > 0)) {
+            throw new IllegalArgumentException("Ширина окна должна быть положительной");
+        }
+        this.maxPointsCount = maxPointsCount;
+        this.maxWidth = maxWidth;
+
+        // Емкость буфера - степень двойки, номер ячейки вычисляется маской
+        int capacity = 16;
+        while (capacity < maxPointsCount && capacity < 1024) {
+            capacity <<= 1;
+        }
+        this.xValues = new double[capacity];
+        this.yValues = new double[capacity];
+    }
+
+    public int getMaxPointsCount() {
+        return maxPointsCount;
+    }
+
+    public double getMaxWidth() {
+        return maxWidth;
+    }
+
+    // Добавление измерения справа от последней точки с вытеснением старых точек
+    public void append(double x, double y) throws InappropriateFunctionPointException {
+        if (Double.isNaN(x)) {
+            throw new InappropriateFunctionPointException("X точки не может быть NaN");
+        }
+        if (pointsCount > 0) {
+            double lastX = xValues[slot(pointsCount - 1)];
+            if (x <= lastX || doubleEquals(x, lastX)) {
+                throw new InappropriateFunctionPointException("Точка x=" + x +
+                        " должна быть правее последней точки окна x=" + lastX);
+            }
+        }
+
+        if (pointsCount == xValues.length) {
+            grow();
+        }
+        int slot = slot(pointsCount);
+        xValues[slot] = x;
+        yValues[slot] = y;
+        pointsCount++;
+        FunctionInstrumentation.recordInsertions(1);
+
+        while (pointsCount > maxPointsCount || x - xValues[head] > maxWidth) {
+            evictFirst();
+        }
+    }
+
+    // Удаление самой старой точки за O(1)
+    private void evictFirst() {
+        head = (head + 1) & (xValues.length - 1);
+        pointsCount--;
+        FunctionInstrumentation.recordDeletion();
+    }
+
+    // Увеличение буфера вдвое; точки переносятся в начало нового буфера
+    private void grow() {
+        int capacity = xValues.length;
+        double[] newX = new double[capacity * 2];
+        double[] newY = new double[capacity * 2];
+        int firstPart = capacity - head;
+        System.arraycopy(xValues, head, newX, 0, firstPart);
+        System.arraycopy(yValues, head, newY, 0, firstPart);
+        System.arraycopy(xValues, 0, newX, firstPart, head);
+        System.arraycopy(yValues, 0, newY, firstPart, head);
+        xValues = newX;
+        yValues = newY;
+        head = 0;
+    }
+
+    // Ячейка буфера для точки окна с номером index
+    private int slot(int index) {
+        return (head + index) & (xValues.length - 1);
+    }
+
+    private boolean doubleEquals(double a, double b) {
+        return Math.abs(a - b) < EPSILON;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException(index);
+        }
+    }
+
+    // Бинарный поиск: номер первой точки, X которой не меньше заданного (pointsCount, если таких нет)
+    private int lowerBound(double x) {
+        int low = 0;
+        int high = pointsCount;
+        int steps = 0;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xValues[slot(mid)] < x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+            steps++;
+        }
+        FunctionInstrumentation.recordSearchSteps(steps);
+        return low;
+    }
+
+    // Значение на интервале, начинающемся в точке i; x лежит в области определения
+    private double interpolate(int i, double x) {
+        int left = slot(i);
+        if (doubleEquals(xValues[left], x) || i == pointsCount - 1) {
+            return yValues[left];
+        }
+        int right = slot(i + 1);
+        if (doubleEquals(xValues[right], x)) {
+            return yValues[right];
+        }
+
+        double x1 = xValues[left];
+        double y1 = yValues[left];
+        double x2 = xValues[right];
+        double y2 = yValues[right];
+
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+
+    // Методы интерфейса TabulatedFunction
+
+    public double getLeftDomainBorder() {
+        if (pointsCount == 0) {
+            throw new IllegalStateException("Окно не содержит точек");
+        }
+        return xValues[head];
+    }
+
+    public double getRightDomainBorder() {
+        if (pointsCount == 0) {
+            throw new IllegalStateException("Окно не содержит точек");
+        }
+        return xValues[slot(pointsCount - 1)];
+    }
+
+    public double getFunctionValue(double x) {
+        FunctionInstrumentation.recordEvaluations(1);
+        if (pointsCount == 0 || x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+            return Double.NaN;
+        }
+        return interpolate(Math.max(lowerBound(x) - 1, 0), x);
+    }
+
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        if (xsOffset < 0 || outOffset < 0 || length < 0 ||
+                xsOffset > xs.length - length || outOffset > out.length - length) {
+            throw new IndexOutOfBoundsException("Диапазон выходит за границы массива");
+        }
+
+        if (pointsCount == 0 || !isSorted(xs, xsOffset, length)) {
+            for (int k = 0; k < length; k++) {
+                out[outOffset + k] = getFunctionValue(xs[xsOffset + k]);
+            }
+            return;
+        }
+
+        // Аргументы упорядочены: номер интервала только растет
+        double leftX = getLeftDomainBorder();
+        double rightX = getRightDomainBorder();
+        int i = 0;
+        for (int k = 0; k < length; k++) {
+            double x = xs[xsOffset + k];
+            if (x < leftX || x > rightX) {
+                out[outOffset + k] = Double.NaN;
+                continue;
+            }
+            while (i < pointsCount - 2 && xValues[slot(i + 1)] < x) {
+                i++;
+            }
+            out[outOffset + k] = interpolate(i, x);
+        }
+        FunctionInstrumentation.recordEvaluations(length);
+        FunctionInstrumentation.recordSearchSteps(i);
+    }
+
+    // Проверка, что аргументы идут по неубыванию (NaN нарушает порядок)
+    private static boolean isSorted(double[] xs, int offset, int length) {
+        for (int k = offset + 1; k < offset + length; k++) {
+            if (!(xs[k - 1] <= xs[k])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getPointsCount() {
+        return pointsCount;
+    }
+
+    public FunctionPoint getPoint(int index) {
+        checkIndex(index);
+        int slot = slot(index);
+        return new FunctionPoint(xValues[slot], yValues[slot]);
+    }
+
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        checkIndex(index);
+        checkOrder(index, point.getX());
+        int slot = slot(index);
+        xValues[slot] = point.getX();
+        yValues[slot] = point.getY();
+    }
+
+    public double getPointX(int index) {
+        checkIndex(index);
+        return xValues[slot(index)];
+    }
+
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        checkIndex(index);
+        checkOrder(index, x);
+        xValues[slot(index)] = x;
+    }
+
+    // Новый X должен остаться строго между соседними точками
+    private void checkOrder(int index, double x) throws InappropriateFunctionPointException {
+        if ((index > 0 && x <= xValues[slot(index - 1)]) ||
+                (index < pointsCount - 1 && x >= xValues[slot(index + 1)])) {
+            throw new InappropriateFunctionPointException("Нарушение порядка точек по X");
+        }
+    }
+
+    public double getPointY(int index) {
+        checkIndex(index);
+        return yValues[slot(index)];
+    }
+
+    public void setPointY(int index, double y) {
+        checkIndex(index);
+        yValues[slot(index)] = y;
+    }
+
+    // Обход и выгрузка точек окна от старых к новым
+
+    public void forEachPoint(PointConsumer consumer) {
+        for (int i = 0; i < pointsCount; i++) {
+            int slot = slot(i);
+            consumer.accept(xValues[slot], yValues[slot]);
+        }
+    }
+
+    public PointCursor cursor() {
+        return new PointCursor() {
+            private int index = -1;
+
+            public boolean next() {
+                if (index + 1 >= pointsCount) {
+                    return false;
+                }
+                index++;
+                return true;
+            }
+
+            public double getX() {
+                return xValues[slot(index)];
+            }
+
+            public double getY() {
+                return yValues[slot(index)];
+            }
+
+            public void reset() {
+                index = -1;
+            }
+        };
+    }
+
+    public void copyXs(double[] dest, int destOffset) {
+        copyRing(xValues, dest, destOffset);
+    }
+
+    public void copyYs(double[] dest, int destOffset) {
+        copyRing(yValues, dest, destOffset);
+    }
+
+    // Копирование окна из кольцевого буфера не более чем двумя участками
+    private void copyRing(double[] source, double[] dest, int destOffset) {
+        if (destOffset < 0 || destOffset > dest.length - pointsCount) {
+            throw new IndexOutOfBoundsException("Массив слишком мал для " + pointsCount + " точек");
+        }
+        int firstPart = Math.min(pointsCount, source.length - head);
+        System.arraycopy(source, head, dest, destOffset, firstPart);
+        System.arraycopy(source, 0, dest, destOffset + firstPart, pointsCount - firstPart);
+    }
+
+    // Удаление первой точки выполняется за O(1), остальных - сдвигом более короткой части окна
+    public void deletePoint(int index) {
+        checkIndex(index);
+        if (pointsCount < 3) {
+            throw new IllegalStateException("Нельзя удалить точку: должно остаться минимум 2 точки");
+        }
+
+        if (index < pointsCount / 2) {
+            for (int i = index; i > 0; i--) {
+                xValues[slot(i)] = xValues[slot(i - 1)];
+                yValues[slot(i)] = yValues[slot(i - 1)];
+            }
+            head = (head + 1) & (xValues.length - 1);
+        } else {
+            for (int i = index; i < pointsCount - 1; i++) {
+                xValues[slot(i)] = xValues[slot(i + 1)];
+                yValues[slot(i)] = yValues[slot(i + 1)];
+            }
+        }
+        pointsCount--;
+        FunctionInstrumentation.recordDeletion();
+    }
+
+    // Точки добавляются только справа, как при append
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        append(point.getX(), point.getY());
+    }
+
+    // Пакет проверяется целиком до добавления: все точки должны быть правее окна
+    public void addPoints(FunctionPoint[] points) throws InappropriateFunctionPointException {
+        double[][] batch = TabulatedFunctions.sortedBatch(points);
+        double[] xs = batch[0];
+        double[] ys = batch[1];
+        if (xs.length > 0 && pointsCount > 0) {
+            double lastX = xValues[slot(pointsCount - 1)];
+            if (xs[0] <= lastX || doubleEquals(xs[0], lastX)) {
+                throw new InappropriateFunctionPointException("Точка x=" + xs[0] +
+                        " должна быть правее последней точки окна x=" + lastX);
+            }
+        }
+        for (int k = 0; k < xs.length; k++) {
+            append(xs[k], ys[k]);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("SlidingWindowTabulatedFunction [pointsCount=").append(pointsCount)
+                .append(", maxPointsCount=").append(maxPointsCount)
+                .append(", maxWidth=").append(maxWidth).append("]\n");
+        for (int i = 0; i < pointsCount; i++) {
+            int slot = slot(i);
+            sb.append(String.format("  [%d] x=%.3f, y=%.3f%n", i, xValues[slot], yValues[slot]));
+        }
+        return sb.toString();
+    }
+}
\ No newline at end of file
@@ -1,12 +1,8 @@
 package functions;
 
-public interface TabulatedFunction {
-    // Получение границ области определения
-    double getLeftDomainBorder();
-    double getRightDomainBorder();
-
-    // Получение значения функции
-    double getFunctionValue(double x);
+public interface TabulatedFunction extends Function {
+    // Табулированная функция: значения задаются набором точек и линейной
+    // интерполяцией между ними
 
     // Работа с точками
     int getPointsCount();
@@ -18,4 +14,74 @@ public interface TabulatedFunction {
     void setPointY(int index, double y);
     void deletePoint(int index);
     void addPoint(FunctionPoint point) throws InappropriateFunctionPointException;
+
+    // Пакетное добавление точек: либо добавляются все точки, либо ни одной.
+    // Точка отвергается, если ее X совпадает (с точностью до эпсилон) с X другой
+    // точки пакета или уже существующей точки
+    default void addPoints(FunctionPoint[] points) throws InappropriateFunctionPointException {
+        double[][] batch = TabulatedFunctions.sortedBatch(points);
+        double[] xs = batch[0];
+        double[] ys = batch[1];
+        for (double x : xs) {
+            TabulatedFunctions.checkNotExisting(this, x);
+        }
+        for (int k = 0; k < xs.length; k++) {
+            addPoint(new FunctionPoint(xs[k], ys[k]));
+        }
+    }
+
+    // Обход и выгрузка точек без создания объектов FunctionPoint
+    default void forEachPoint(PointConsumer consumer) {
+        int count = getPointsCount();
+        for (int i = 0; i < count; i++) {
+            consumer.accept(getPointX(i), getPointY(i));
+        }
+    }
+
+    default PointCursor cursor() {
+        return new PointCursor() {
+            private int index = -1;
+
+            public boolean next() {
+                if (index + 1 >= getPointsCount()) {
+                    return false;
+                }
+                index++;
+                return true;
+            }
+
+            public double getX() {
+                return getPointX(index);
+            }
+
+            public double getY() {
+                return getPointY(index);
+            }
+
+            public void reset() {
+                index = -1;
+            }
+        };
+    }
+
+    // Копирование X (или Y) всех точек в dest начиная с позиции destOffset
+    default void copyXs(double[] dest, int destOffset) {
+        int count = getPointsCount();
+        if (destOffset < 0 || destOffset > dest.length - count) {
+            throw new IndexOutOfBoundsException("Массив слишком мал для " + count + " точек");
+        }
+        for (int i = 0; i < count; i++) {
+            dest[destOffset + i] = getPointX(i);
+        }
+    }
+
+    default void copyYs(double[] dest, int destOffset) {
+        int count = getPointsCount();
+        if (destOffset < 0 || destOffset > dest.length - count) {
+            throw new IndexOutOfBoundsException("Массив слишком мал для " + count + " точек");
+        }
+        for (int i = 0; i < count; i++) {
+            dest[destOffset + i] = getPointY(i);
+        }
+    }
 }
\ No newline at end of file
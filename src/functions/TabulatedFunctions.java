@@ -0,0 +1,768 @@
+package functions;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+public final class TabulatedFunctions {
+
+    // Двоичный формат: заголовок из 16 байт (сигнатура, версия, флаги, количество точек,
+    // резерв), затем пары (x, y) либо, для равномерной сетки, leftX, шаг и значения y.
+    // Все числа в порядке big-endian. Файл, записанный парами (x, y) (compact = false),
+    // открывается через MappedTabulatedFunction.open: пары начинаются с HEADER_BYTES
+    public static final int HEADER_BYTES = 16;
+
+    private static final int MAGIC = 0x54414246; // "TABF"
+    private static final short VERSION = 1;
+    private static final short FLAG_UNIFORM = 1;
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final int MAX_POINTS_COUNT = Integer.MAX_VALUE - 8;
+
+    private static final double EPSILON = 1e-10;
+
+    private TabulatedFunctions() {
+    }
+
+    // Табулирование функции f на равномерной сетке из pointsCount точек. Значения
+    // вычисляются параллельно в parallelism потоков сразу в массивы результата
+    public static ArrayTabulatedFunction tabulate(DoubleUnaryOperator f, double leftX, double rightX,
+                                                  int pointsCount, int parallelism) {
+        checkTabulationArguments(leftX, rightX, pointsCount, parallelism);
+
+        double[] xValues = new double[pointsCount];
+        double[] yValues = new double[pointsCount];
+        double step = (rightX - leftX) / (pointsCount - 1);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new TabulateTask(f, leftX, step, xValues, yValues, 0, pointsCount,
+                    taskThreshold(pointsCount, parallelism)));
+        } finally {
+            pool.shutdown();
+        }
+        return new ArrayTabulatedFunction(xValues, yValues, pointsCount, true);
+    }
+
+    // То же для функции на связном списке: каждая подзадача строит свой участок списка
+    public static LinkedListTabulatedFunction tabulateLinkedList(DoubleUnaryOperator f, double leftX, double rightX,
+                                                                 int pointsCount, int parallelism) {
+        checkTabulationArguments(leftX, rightX, pointsCount, parallelism);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return LinkedListTabulatedFunction.tabulate(f, leftX, rightX, pointsCount, pool,
+                    taskThreshold(pointsCount, parallelism));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void checkTabulationArguments(double leftX, double rightX, int pointsCount, int parallelism) {
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой");
+        }
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее 2");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Число потоков должно быть положительным");
+        }
+    }
+
+    // Размер участка, который вычисляется без дальнейшего деления: около восьми
+    // участков на поток, чтобы потоки могли забирать работу друг у друга
+    private static int taskThreshold(int pointsCount, int parallelism) {
+        return Math.max(pointsCount / (parallelism * 8), 1);
+    }
+
+    // Вычисление значений на участке [from, to) сетки
+    private static class TabulateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final DoubleUnaryOperator f;
+        private final double leftX;
+        private final double step;
+        private final double[] xValues;
+        private final double[] yValues;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        TabulateTask(DoubleUnaryOperator f, double leftX, double step, double[] xValues, double[] yValues,
+                     int from, int to, int threshold) {
+            this.f = f;
+            this.leftX = leftX;
+            this.step = step;
+            this.xValues = xValues;
+            this.yValues = yValues;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                for (int i = from; i < to; i++) {
+                    double x = leftX + i * step;
+                    xValues[i] = x;
+                    yValues[i] = f.applyAsDouble(x);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new TabulateTask(f, leftX, step, xValues, yValues, from, middle, threshold),
+                    new TabulateTask(f, leftX, step, xValues, yValues, middle, to, threshold));
+        }
+    }
+
+    // Сумма, разность и произведение табулированных функций на пересечении областей
+    // определения. Точки результата - объединение точек f и g (X, совпадающие с
+    // точностью до эпсилон, объединяются); обе таблицы проходятся курсорами
+    // одновременно за O(n + m). Произведение между точками нелинейно, поэтому его
+    // таблица точна только в своих точках; точное значение дает Functions.product
+    public static ArrayTabulatedFunction add(TabulatedFunction f, TabulatedFunction g) {
+        return merge(f, g, (a, b) -> a + b);
+    }
+
+    public static ArrayTabulatedFunction subtract(TabulatedFunction f, TabulatedFunction g) {
+        return merge(f, g, (a, b) -> a - b);
+    }
+
+    public static ArrayTabulatedFunction multiply(TabulatedFunction f, TabulatedFunction g) {
+        return merge(f, g, (a, b) -> a * b);
+    }
+
+    private static ArrayTabulatedFunction merge(TabulatedFunction f, TabulatedFunction g,
+                                                DoubleBinaryOperator operation) {
+        double leftX = Math.max(f.getLeftDomainBorder(), g.getLeftDomainBorder());
+        double rightX = Math.min(f.getRightDomainBorder(), g.getRightDomainBorder());
+        if (!(rightX - leftX >= EPSILON)) {
+            throw new IllegalArgumentException("Области определения функций не пересекаются");
+        }
+
+        SegmentWalker fWalker = new SegmentWalker(f);
+        SegmentWalker gWalker = new SegmentWalker(g);
+        PointBuffer result = new PointBuffer();
+        double x = leftX;
+        while (rightX - x >= EPSILON) {
+            result.add(x, operation.applyAsDouble(fWalker.valueAt(x), gWalker.valueAt(x)));
+            x = Math.min(fWalker.nextX(x), gWalker.nextX(x));
+        }
+        result.add(rightX, operation.applyAsDouble(fWalker.valueAt(rightX), gWalker.valueAt(rightX)));
+        return result.toFunction();
+    }
+
+    // Композиция f(g(x)) на области определения g; значения g должны лежать в области
+    // определения f. На отрезке между точками g функция g линейна, поэтому точки
+    // результата - точки g и прообразы пройденных на отрезке точек f. Так как g
+    // непрерывна, номер точки f сдвигается от отрезка к отрезку без поиска: время
+    // O(n + m + k), где k - число точек результата. Точки f копируются в массивы,
+    // потому что на немонотонной g они проходятся в обе стороны
+    public static ArrayTabulatedFunction compose(TabulatedFunction f, TabulatedFunction g) {
+        int count = f.getPointsCount();
+        if (count < 2 || g.getPointsCount() < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее 2");
+        }
+        double[] fx = new double[count];
+        double[] fy = new double[count];
+        f.copyXs(fx, 0);
+        f.copyYs(fy, 0);
+
+        PointBuffer result = new PointBuffer();
+        PointCursor cursor = g.cursor();
+        cursor.next();
+        double x1 = cursor.getX();
+        double v1 = checkInnerValue(cursor.getY(), fx, count);
+        int j = upperBound(fx, count, v1); // Число точек f с X не больше v1
+        result.add(x1, interpolate(fx, fy, count, j, v1));
+        while (cursor.next()) {
+            double x2 = cursor.getX();
+            double v2 = checkInnerValue(cursor.getY(), fx, count);
+            if (v2 > v1) {
+                for (; j < count && fx[j] < v2; j++) {
+                    addPreimage(result, x1, v1, x2, v2, fx[j], fy[j]);
+                }
+                while (j < count && fx[j] <= v2) {
+                    j++;
+                }
+            } else {
+                for (; j > 0 && fx[j - 1] > v2; j--) {
+                    if (fx[j - 1] < v1) {
+                        addPreimage(result, x1, v1, x2, v2, fx[j - 1], fy[j - 1]);
+                    }
+                }
+            }
+            result.add(x2, interpolate(fx, fy, count, j, v2));
+            x1 = x2;
+            v1 = v2;
+        }
+        return result.toFunction();
+    }
+
+    private static double checkInnerValue(double v, double[] fx, int count) {
+        if (!(v >= fx[0] - EPSILON && v <= fx[count - 1] + EPSILON)) {
+            throw new IllegalArgumentException("Значения внутренней функции выходят за область определения внешней");
+        }
+        return v;
+    }
+
+    // Точка результата в X, где отрезок g от (x1, v1) до (x2, v2) проходит через точку f
+    private static void addPreimage(PointBuffer result, double x1, double v1, double x2, double v2,
+                                    double fX, double fY) {
+        double x = x1 + (fX - v1) * (x2 - x1) / (v2 - v1);
+        if (x - result.lastX() >= EPSILON && x2 - x >= EPSILON) {
+            result.add(x, fY);
+        }
+    }
+
+    // Число точек с X не больше заданного
+    private static int upperBound(double[] xs, int count, double x) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xs[mid] <= x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Значение на интервале, содержащем x; j - число точек с X не больше x
+    private static double interpolate(double[] xs, double[] ys, int count, int j, double x) {
+        int i = Math.min(Math.max(j - 1, 0), count - 2);
+        if (Math.abs(xs[i] - x) < EPSILON) {
+            return ys[i];
+        }
+        if (Math.abs(xs[i + 1] - x) < EPSILON) {
+            return ys[i + 1];
+        }
+        return ys[i] + (ys[i + 1] - ys[i]) * (x - xs[i]) / (xs[i + 1] - xs[i]);
+    }
+
+    // Последовательный проход по интервалам функции слева направо
+    private static class SegmentWalker {
+        private final PointCursor cursor;
+        private double x1;
+        private double y1;
+        private double x2;
+        private double y2;
+        private boolean more; // Есть ли точки правее x2
+
+        SegmentWalker(TabulatedFunction function) {
+            cursor = function.cursor();
+            cursor.next();
+            x2 = cursor.getX();
+            y2 = cursor.getY();
+            advance();
+        }
+
+        private void advance() {
+            x1 = x2;
+            y1 = y2;
+            more = cursor.next();
+            if (more) {
+                x2 = cursor.getX();
+                y2 = cursor.getY();
+            }
+        }
+
+        // Значение в x; x не левее предыдущего запроса
+        double valueAt(double x) {
+            while (more && x2 < x) {
+                advance();
+            }
+            if (Math.abs(x1 - x) < EPSILON) {
+                return y1;
+            }
+            if (Math.abs(x2 - x) < EPSILON) {
+                return y2;
+            }
+            return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+        }
+
+        // Ближайшая точка правее x более чем на эпсилон (бесконечность, если таких нет)
+        double nextX(double x) {
+            while (more && x2 - x < EPSILON) {
+                advance();
+            }
+            return x2 - x >= EPSILON ? x2 : Double.POSITIVE_INFINITY;
+        }
+    }
+
+    // Накопление точек результата с удвоением массивов
+    private static class PointBuffer {
+        private double[] xValues = new double[16];
+        private double[] yValues = new double[16];
+        private int pointsCount;
+
+        void add(double x, double y) {
+            if (pointsCount == xValues.length) {
+                double[] newX = new double[pointsCount * 2];
+                double[] newY = new double[pointsCount * 2];
+                System.arraycopy(xValues, 0, newX, 0, pointsCount);
+                System.arraycopy(yValues, 0, newY, 0, pointsCount);
+                xValues = newX;
+                yValues = newY;
+            }
+            xValues[pointsCount] = x;
+            yValues[pointsCount] = y;
+            pointsCount++;
+        }
+
+        double lastX() {
+            return xValues[pointsCount - 1];
+        }
+
+        ArrayTabulatedFunction toFunction() {
+            return new ArrayTabulatedFunction(xValues, yValues, pointsCount, false);
+        }
+    }
+
+    // Прореживание функции: новая ломаная с вершинами в части исходных X (крайние
+    // точки сохраняются), отклоняющаяся от исходной не более чем на maxError. Исходная
+    // функция читается курсором дважды (построение и точный замер погрешности) и не
+    // копируется: кроме результата, память не зависит от числа точек
+    public static SimplificationResult simplify(TabulatedFunction function, double maxError) {
+        if (!(maxError >= 0) || Double.isInfinite(maxError)) {
+            throw new IllegalArgumentException("Допустимая погрешность должна быть неотрицательным числом");
+        }
+        Simplifier simplifier = new Simplifier(maxError);
+        PointCursor cursor = function.cursor();
+        int count = 0;
+        while (cursor.next()) {
+            simplifier.accept(cursor.getX(), cursor.getY());
+            count++;
+        }
+        simplifier.finish();
+        cursor.reset();
+        double achievedError = measureError(cursor, simplifier.result);
+        return new SimplificationResult(simplifier.result.toFunction(), count, achievedError);
+    }
+
+    // Потоковое построение ломаной. От текущей опорной точки поддерживается конус
+    // допустимых наклонов [low, high]: прямая с таким наклоном проходит не дальше
+    // maxError от всех прочитанных после опоры точек. Точка, сужающая конус до пустого,
+    // закрывает отрезок на предыдущей точке: ее X становится вершиной, а Y берется на
+    // прямой с наклоном из конуса (совпадает с исходным, если наклон на точку допустим).
+    // Вершина становится новой опорой, и прочитанные точки больше не нужны - в памяти
+    // только опора, последняя точка и границы конуса
+    private static class Simplifier {
+        private static final int ROUNDING_ULPS = 8;
+
+        private final double maxError;
+
+        private final PointBuffer result = new PointBuffer();
+
+        private double anchorX;
+        private double anchorY;
+        private double lastX;
+        private double lastY;
+        private boolean pending; // Есть прочитанные точки после опорной
+        private double low = Double.NEGATIVE_INFINITY;
+        private double high = Double.POSITIVE_INFINITY;
+
+        Simplifier(double maxError) {
+            this.maxError = maxError;
+        }
+
+        void accept(double x, double y) {
+            if (result.pointsCount == 0) {
+                startSegment(x, y);
+                return;
+            }
+            double dx = x - anchorX;
+            double slope = (y - anchorY) / dx;
+            if (!Double.isFinite(slope)) {
+                // NaN или бесконечность: точка сохраняется вместе с соседями
+                if (pending) {
+                    closeSegment();
+                }
+                startSegment(x, y);
+                return;
+            }
+            // Конус сужается на запас под ошибки округления в нем самом, в вершине
+            // отрезка и в интерполяции при измерении погрешности: все они порядка
+            // нескольких ulp величин y и anchorY. Поэтому измеренная погрешность не
+            // превышает maxError, а при maxError меньше запаса точки не удаляются
+            double tolerance = maxError - ROUNDING_ULPS * Math.ulp(Math.abs(y) + Math.abs(anchorY) + maxError);
+            double newLow = Math.max(low, (y - tolerance - anchorY) / dx);
+            double newHigh = Math.min(high, (y + tolerance - anchorY) / dx);
+            if (newLow > newHigh) {
+                // Пустой конус сразу после опоры бывает только при запасе больше maxError:
+                // точка сохраняется. Иначе отрезок закрывается, и точка проверяется от
+                // новой опоры, где конус еще не сужен
+                if (!pending) {
+                    startSegment(x, y);
+                    return;
+                }
+                closeSegment();
+                accept(x, y);
+                return;
+            }
+            low = newLow;
+            high = newHigh;
+            lastX = x;
+            lastY = y;
+            pending = true;
+        }
+
+        // Последняя точка всегда попадает в результат
+        void finish() {
+            if (pending) {
+                closeSegment();
+            }
+        }
+
+        private void startSegment(double x, double y) {
+            result.add(x, y);
+            anchorX = x;
+            anchorY = y;
+            pending = false;
+            low = Double.NEGATIVE_INFINITY;
+            high = Double.POSITIVE_INFINITY;
+        }
+
+        // Отрезок от опорной точки до X последней точки с наклоном из конуса
+        private void closeSegment() {
+            double slope = (lastY - anchorY) / (lastX - anchorX);
+            double y = lastY;
+            if (!(slope >= low && slope <= high)) {
+                y = anchorY + Math.min(Math.max(slope, low), high) * (lastX - anchorX);
+            }
+            startSegment(lastX, y);
+        }
+    }
+
+    // Наибольшее отклонение ломаной result от точек курсора. Вершины ломаной лежат
+    // в X исходных точек, поэтому отрезок для каждой точки находится одним проходом.
+    // Совпадающие значения (в том числе NaN и бесконечности в вершинах) не учитываются
+    private static double measureError(PointCursor cursor, PointBuffer result) {
+        double[] xs = result.xValues;
+        double[] ys = result.yValues;
+        int last = result.pointsCount - 1;
+        double error = 0;
+        int j = 0;
+        while (cursor.next()) {
+            double x = cursor.getX();
+            double y = cursor.getY();
+            while (j < last && xs[j + 1] <= x) {
+                j++;
+            }
+            double value = j == last || xs[j] == x
+                    ? ys[j]
+                    : ys[j] + (ys[j + 1] - ys[j]) * (x - xs[j]) / (xs[j + 1] - xs[j]);
+            if (Double.compare(value, y) != 0) {
+                error = Math.max(error, Math.abs(value - y));
+            }
+        }
+        return error;
+    }
+
+    // Запись функции в канал порциями, без создания объектов FunctionPoint
+    public static void writeTabulatedFunction(TabulatedFunction function, WritableByteChannel out) throws IOException {
+        writeTabulatedFunction(function, out, true);
+    }
+
+    // То же с выбором формата: при compact = false равномерная сетка тоже записывается
+    // парами (x, y), и файл можно отобразить через MappedTabulatedFunction.open
+    public static void writeTabulatedFunction(TabulatedFunction function, WritableByteChannel out,
+                                              boolean compact) throws IOException {
+        int count = function.getPointsCount();
+        double leftX = function.getPointX(0);
+        PointCursor cursor = function.cursor();
+        double step = compact ? findUniformStep(function, cursor) : Double.NaN;
+        boolean uniform = !Double.isNaN(step);
+
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+        writeHeader(buffer, uniform, count);
+        if (uniform) {
+            buffer.putDouble(leftX);
+            buffer.putDouble(step);
+        }
+        cursor.reset();
+        while (cursor.next()) {
+            if (buffer.remaining() < 2 * Double.BYTES) {
+                flush(buffer, out);
+            }
+            if (!uniform) {
+                buffer.putDouble(cursor.getX());
+            }
+            buffer.putDouble(cursor.getY());
+        }
+        flush(buffer, out);
+    }
+
+    // Заголовок формата; для пар (x, y) его пишет и MappedTabulatedFunction.create
+    static void writeHeader(ByteBuffer buffer, boolean uniform, int count) {
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putShort(uniform ? FLAG_UNIFORM : 0);
+        buffer.putInt(count);
+        buffer.putInt(0);
+    }
+
+    // Чтение функции, хранящей точки в массиве
+    public static ArrayTabulatedFunction readTabulatedFunction(ReadableByteChannel in) throws IOException {
+        double[][] points = new double[2][];
+        boolean uniform = readPoints(in, points);
+        return new ArrayTabulatedFunction(points[0], points[1], points[0].length, uniform);
+    }
+
+    // Чтение функции, хранящей точки в связном списке
+    public static LinkedListTabulatedFunction readLinkedListTabulatedFunction(ReadableByteChannel in) throws IOException {
+        double[][] points = new double[2][];
+        boolean uniform = readPoints(in, points);
+        return new LinkedListTabulatedFunction(points[0], points[1], points[0].length, uniform);
+    }
+
+    // Разбор заголовка и данных в массивы points[0] (X) и points[1] (Y);
+    // возвращает признак равномерной сетки
+    private static boolean readPoints(ReadableByteChannel in, double[][] points) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+        buffer.limit(HEADER_BYTES);
+        readFully(in, buffer);
+        buffer.flip();
+
+        boolean uniform = (readHeader(buffer) & FLAG_UNIFORM) != 0;
+        int count = buffer.getInt();
+        if (count < 2) {
+            throw new IOException("Количество точек должно быть не менее 2");
+        }
+        int pointBytes = uniform ? Double.BYTES : 2 * Double.BYTES;
+        if (count > MAX_POINTS_COUNT) {
+            throw new IOException("Слишком много точек: " + count);
+        }
+        // Размер известен у файлов: данные должны поместиться в остаток канала
+        if (in instanceof SeekableByteChannel) {
+            SeekableByteChannel channel = (SeekableByteChannel) in;
+            long dataBytes = (long) count * pointBytes + (uniform ? 2 * Double.BYTES : 0);
+            if (channel.size() - channel.position() < dataBytes) {
+                throw new EOFException("Данные обрываются раньше заявленных " + count + " точек");
+            }
+        }
+
+        double leftX = 0;
+        double step = 0;
+        if (uniform) {
+            buffer.clear();
+            buffer.limit(2 * Double.BYTES);
+            readFully(in, buffer);
+            buffer.flip();
+            leftX = buffer.getDouble();
+            step = buffer.getDouble();
+        }
+
+        // Данные читаются порциями размером с буфер, а массивы растут по мере их
+        // поступления: количество из заголовка поврежденного потока не приводит к
+        // выделению памяти под данные, которых нет
+        int pointsPerChunk = BUFFER_BYTES / pointBytes;
+        double[] xValues = new double[Math.min(count, pointsPerChunk)];
+        double[] yValues = new double[xValues.length];
+        int i = 0;
+        while (i < count) {
+            int chunk = Math.min(count - i, pointsPerChunk);
+            buffer.clear();
+            buffer.limit(chunk * pointBytes);
+            readFully(in, buffer);
+            buffer.flip();
+            if (i + chunk > xValues.length) {
+                int capacity = (int) Math.min(count, Math.max(2L * xValues.length, i + chunk));
+                double[] newX = new double[capacity];
+                double[] newY = new double[capacity];
+                System.arraycopy(xValues, 0, newX, 0, i);
+                System.arraycopy(yValues, 0, newY, 0, i);
+                xValues = newX;
+                yValues = newY;
+            }
+            for (int end = i + chunk; i < end; i++) {
+                xValues[i] = uniform ? leftX + i * step : buffer.getDouble();
+                yValues[i] = buffer.getDouble();
+            }
+        }
+
+        for (int k = 1; k < count; k++) {
+            if (!(xValues[k] > xValues[k - 1])) {
+                throw new IOException("Значения X должны строго возрастать (точка " + k + ")");
+            }
+        }
+
+        points[0] = xValues;
+        points[1] = yValues;
+        return uniform;
+    }
+
+    // Проверка сигнатуры, версии и флагов заголовка; возвращает флаги
+    private static short readHeader(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Неизвестный формат данных");
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Неподдерживаемая версия формата: " + version);
+        }
+        short flags = buffer.getShort();
+        if ((flags & ~FLAG_UNIFORM) != 0) {
+            throw new IOException("Неизвестные флаги формата: " + flags);
+        }
+        return flags;
+    }
+
+    // Количество точек в файле, записанном парами (x, y), для его отображения через
+    // MappedTabulatedFunction; компактный формат равномерной сетки отобразить нельзя
+    static int readPairsHeader(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) {
+                throw new EOFException("Неожиданный конец данных");
+            }
+        }
+        buffer.flip();
+        if ((readHeader(buffer) & FLAG_UNIFORM) != 0) {
+            throw new IOException("Файл записан в компактном формате равномерной сетки; " +
+                    "для отображения его нужно записать парами (x, y)");
+        }
+        return buffer.getInt();
+    }
+
+    // Шаг, с которым X точек точно воспроизводятся формулой leftX + i * step, как в
+    // конструкторах; NaN, если сетка неравномерная
+    static double findUniformStep(TabulatedFunction function, PointCursor cursor) {
+        int count = function.getPointsCount();
+        double leftX = function.getPointX(0);
+        double rightX = function.getPointX(count - 1);
+        double step = (rightX - leftX) / (count - 1);
+
+        // Деление могло дать соседнее значение шага, проверяем и их
+        double[] candidates = {step, Math.nextDown(step), Math.nextUp(step)};
+        for (double candidate : candidates) {
+            if (leftX + (count - 1) * candidate == rightX && isUniform(cursor, leftX, candidate)) {
+                return candidate;
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static boolean isUniform(PointCursor cursor, double leftX, double step) {
+        cursor.reset();
+        for (int i = 0; cursor.next(); i++) {
+            if (cursor.getX() != leftX + i * step) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Подготовка пакета точек для addPoints: координаты копируются и упорядочиваются
+    // по X, совпадающие X внутри пакета отвергаются. Результат: {X, Y}
+    static double[][] sortedBatch(FunctionPoint[] points) throws InappropriateFunctionPointException {
+        int count = points.length;
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        boolean sorted = true;
+        for (int i = 0; i < count; i++) {
+            xs[i] = points[i].getX();
+            ys[i] = points[i].getY();
+            if (Double.isNaN(xs[i])) {
+                throw new InappropriateFunctionPointException("X точки не может быть NaN");
+            }
+            if (i > 0 && xs[i] < xs[i - 1]) {
+                sorted = false;
+            }
+        }
+        if (!sorted) {
+            sortByX(xs, ys);
+        }
+        for (int i = 1; i < count; i++) {
+            if (xs[i] - xs[i - 1] < EPSILON) {
+                throw new InappropriateFunctionPointException("Точка с таким X уже есть в пакете");
+            }
+        }
+        return new double[][]{xs, ys};
+    }
+
+    // Проверка, что у функции нет точки с X, совпадающим с заданным с точностью до эпсилон
+    static void checkNotExisting(TabulatedFunction function, double x) throws InappropriateFunctionPointException {
+        int low = 0;
+        int high = function.getPointsCount();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (function.getPointX(mid) < x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if ((low < function.getPointsCount() && function.getPointX(low) - x < EPSILON) ||
+                (low > 0 && x - function.getPointX(low - 1) < EPSILON)) {
+            throw new InappropriateFunctionPointException("Точка с таким X уже существует");
+        }
+    }
+
+    // Сортировка слиянием пар (x, y) по X
+    private static void sortByX(double[] xs, double[] ys) {
+        int count = xs.length;
+        double[] bufferX = new double[count];
+        double[] bufferY = new double[count];
+        double[] fromX = xs;
+        double[] fromY = ys;
+        double[] toX = bufferX;
+        double[] toY = bufferY;
+        for (int width = 1; width < count; width *= 2) {
+            for (int left = 0; left < count; left += 2 * width) {
+                int middle = Math.min(left + width, count);
+                int right = Math.min(left + 2 * width, count);
+                int i = left;
+                int j = middle;
+                for (int k = left; k < right; k++) {
+                    if (i < middle && (j >= right || fromX[i] <= fromX[j])) {
+                        toX[k] = fromX[i];
+                        toY[k] = fromY[i];
+                        i++;
+                    } else {
+                        toX[k] = fromX[j];
+                        toY[k] = fromY[j];
+                        j++;
+                    }
+                }
+            }
+            double[] swapX = fromX;
+            double[] swapY = fromY;
+            fromX = toX;
+            fromY = toY;
+            toX = swapX;
+            toY = swapY;
+        }
+        if (fromX != xs) {
+            System.arraycopy(fromX, 0, xs, 0, count);
+            System.arraycopy(fromY, 0, ys, 0, count);
+        }
+    }
+
+    private static void flush(ByteBuffer buffer, WritableByteChannel out) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static void readFully(ReadableByteChannel in, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer) < 0) {
+                throw new EOFException("Неожиданный конец данных");
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,563 @@
+package functions;
+
+public class UnrolledLinkedListTabulatedFunction implements TabulatedFunction {
+
+    // Развернутый список: каждый узел хранит блок точек в массивах примитивов,
+    // поэтому на точку не создаются отдельные объекты, а проход по блоку
+    // идет по соседним ячейкам памяти. Заполненный блок при вставке делится
+    // пополам, малозаполненный при удалении сливается с соседним
+    private static class Block {
+        final double[] xs;
+        final double[] ys;
+        int size;
+        Block prev;
+        Block next;
+
+        Block(int capacity) {
+            this.xs = new double[capacity];
+            this.ys = new double[capacity];
+        }
+    }
+
+    // Последний использованный блок и номер его первой точки (см. LinkedListTabulatedFunction)
+    private static class AccessCache {
+        Block block;
+        int start = -1;
+        int modCount;
+    }
+
+    public static final int DEFAULT_BLOCK_SIZE = 64;
+    private static final double EPSILON = 1e-10;
+
+    private final int blockSize;
+    private Block first;
+    private Block last;
+    private int pointsCount;
+
+    private final AccessCache sharedCache = new AccessCache();
+    private ThreadLocal<AccessCache> threadCaches;
+    private int modCount;
+
+    public UnrolledLinkedListTabulatedFunction(double leftX, double rightX, int pointsCount) {
+        this(leftX, rightX, pointsCount, DEFAULT_BLOCK_SIZE);
+    }
+
+    public UnrolledLinkedListTabulatedFunction(double leftX, double rightX, int pointsCount, int blockSize) {
+        this(leftX, rightX, new double[checkPointsCount(pointsCount)], blockSize);
+    }
+
+    public UnrolledLinkedListTabulatedFunction(double leftX, double rightX, double[] values) {
+        this(leftX, rightX, values, DEFAULT_BLOCK_SIZE);
+    }
+
+    public UnrolledLinkedListTabulatedFunction(double leftX, double rightX, double[] values, int blockSize) {
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой");
+        }
+        checkPointsCount(values.length);
+        if (blockSize < 4) {
+            throw new IllegalArgumentException("Размер блока должен быть не менее 4");
+        }
+        this.blockSize = blockSize;
+
+        // Блоки заполняются целиком, как массив
+        double step = (rightX - leftX) / (values.length - 1);
+        Block block = null;
+        for (int i = 0; i < values.length; i++) {
+            if (block == null || block.size == blockSize) {
+                Block next = new Block(blockSize);
+                if (block == null) {
+                    first = next;
+                } else {
+                    block.next = next;
+                    next.prev = block;
+                }
+                block = next;
+            }
+            block.xs[block.size] = leftX + i * step;
+            block.ys[block.size] = values[i];
+            block.size++;
+        }
+        this.last = block;
+        this.pointsCount = values.length;
+    }
+
+    private static int checkPointsCount(int pointsCount) {
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее 2");
+        }
+        return pointsCount;
+    }
+
+    private boolean doubleEquals(double a, double b) {
+        return Math.abs(a - b) < EPSILON;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    // Отдельный кэш для каждого потока (см. LinkedListTabulatedFunction.confineCacheToThreads)
+    void confineCacheToThreads() {
+        threadCaches = new ThreadLocal<AccessCache>() {
+            @Override
+            protected AccessCache initialValue() {
+                return new AccessCache();
+            }
+        };
+    }
+
+    // Вспомогательные методы для работы со списком
+
+    // Кэш текущего потока; устаревший после изменения структуры списка сбрасывается
+    private AccessCache accessCache() {
+        AccessCache cache = threadCaches == null ? sharedCache : threadCaches.get();
+        if (cache.modCount != modCount) {
+            cache.block = null;
+            cache.start = -1;
+            cache.modCount = modCount;
+        }
+        return cache;
+    }
+
+    // Блок с точкой index; номер его первой точки остается в cache.start.
+    // Проход начинается от ближайшего из концов списка и последнего использованного блока
+    private AccessCache locate(int index) {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException(index);
+        }
+
+        AccessCache cache = accessCache();
+        Block block;
+        int start;
+        if (cache.block != null && Math.abs(index - cache.start) <= Math.min(index, pointsCount - 1 - index)) {
+            block = cache.block;
+            start = cache.start;
+            FunctionInstrumentation.recordCacheAccess(true);
+        } else if (index < pointsCount / 2) {
+            block = first;
+            start = 0;
+            FunctionInstrumentation.recordCacheAccess(false);
+        } else {
+            block = last;
+            start = pointsCount - last.size;
+            FunctionInstrumentation.recordCacheAccess(false);
+        }
+
+        int steps = 0;
+        while (index < start) {
+            block = block.prev;
+            start -= block.size;
+            steps++;
+        }
+        while (index >= start + block.size) {
+            start += block.size;
+            block = block.next;
+            steps++;
+        }
+        FunctionInstrumentation.recordSearchSteps(steps);
+
+        cache.block = block;
+        cache.start = start;
+        return cache;
+    }
+
+    // Последний блок, первая точка которого левее x (или первый блок);
+    // номер первой точки блока остается в cache.start
+    private AccessCache findBlock(double x) {
+        AccessCache cache = accessCache();
+        Block block = first;
+        int start = 0;
+        if (cache.block != null) {
+            block = cache.block;
+            start = cache.start;
+        }
+        FunctionInstrumentation.recordCacheAccess(cache.block != null);
+
+        int steps = 0;
+        while (block.prev != null && block.xs[0] >= x) {
+            block = block.prev;
+            start -= block.size;
+            steps++;
+        }
+        while (block.next != null && block.next.xs[0] < x) {
+            start += block.size;
+            block = block.next;
+            steps++;
+        }
+        FunctionInstrumentation.recordSearchSteps(steps);
+
+        cache.block = block;
+        cache.start = start;
+        return cache;
+    }
+
+    // Номер первой точки блока, X которой не меньше заданного (size, если таких нет)
+    private static int lowerBound(Block block, double x) {
+        int low = 0;
+        int high = block.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (block.xs[mid] < x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Значение на интервале, начинающемся в точке i блока; x лежит в области определения
+    private double interpolate(Block block, int i, double x) {
+        double x1 = block.xs[i];
+        double y1 = block.ys[i];
+        if (doubleEquals(x1, x)) {
+            return y1;
+        }
+
+        Block nextBlock = block;
+        int next = i + 1;
+        if (next == block.size) {
+            nextBlock = block.next;
+            next = 0;
+            if (nextBlock == null) {
+                return y1;
+            }
+        }
+        double x2 = nextBlock.xs[next];
+        double y2 = nextBlock.ys[next];
+        if (doubleEquals(x2, x)) {
+            return y2;
+        }
+
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+
+    // Новый X точки i блока должен остаться строго между соседними точками
+    private void checkOrder(Block block, int i, double x) throws InappropriateFunctionPointException {
+        double previous = Double.NaN;
+        if (i > 0) {
+            previous = block.xs[i - 1];
+        } else if (block.prev != null) {
+            previous = block.prev.xs[block.prev.size - 1];
+        }
+        double next = Double.NaN;
+        if (i < block.size - 1) {
+            next = block.xs[i + 1];
+        } else if (block.next != null) {
+            next = block.next.xs[0];
+        }
+        if (x <= previous || x >= next) {
+            throw new InappropriateFunctionPointException("Нарушение порядка точек по X");
+        }
+    }
+
+    // Деление заполненного блока: верхняя половина переносится в новый блок после него
+    private Block split(Block block) {
+        Block right = new Block(blockSize);
+        int half = block.size / 2;
+        right.size = block.size - half;
+        System.arraycopy(block.xs, half, right.xs, 0, right.size);
+        System.arraycopy(block.ys, half, right.ys, 0, right.size);
+        block.size = half;
+
+        right.prev = block;
+        right.next = block.next;
+        if (block.next != null) {
+            block.next.prev = right;
+        } else {
+            last = right;
+        }
+        block.next = right;
+        return right;
+    }
+
+    private void unlink(Block block) {
+        if (block.prev != null) {
+            block.prev.next = block.next;
+        } else {
+            first = block.next;
+        }
+        if (block.next != null) {
+            block.next.prev = block.prev;
+        } else {
+            last = block.prev;
+        }
+    }
+
+    // Перенос точек следующего блока в конец block и удаление следующего
+    private void mergeWithNext(Block block) {
+        Block next = block.next;
+        System.arraycopy(next.xs, 0, block.xs, block.size, next.size);
+        System.arraycopy(next.ys, 0, block.ys, block.size, next.size);
+        block.size += next.size;
+        unlink(next);
+    }
+
+    // Методы интерфейса TabulatedFunction
+
+    public double getLeftDomainBorder() {
+        return first.xs[0];
+    }
+
+    public double getRightDomainBorder() {
+        return last.xs[last.size - 1];
+    }
+
+    public double getFunctionValue(double x) {
+        FunctionInstrumentation.recordEvaluations(1);
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+            return Double.NaN;
+        }
+
+        Block block = findBlock(x).block;
+        int i = Math.max(lowerBound(block, x) - 1, 0);
+        return interpolate(block, i, x);
+    }
+
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        if (xsOffset < 0 || outOffset < 0 || length < 0 ||
+                xsOffset > xs.length - length || outOffset > out.length - length) {
+            throw new IndexOutOfBoundsException("Диапазон выходит за границы массива");
+        }
+
+        if (!isSorted(xs, xsOffset, length)) {
+            for (int k = 0; k < length; k++) {
+                out[outOffset + k] = getFunctionValue(xs[xsOffset + k]);
+            }
+            return;
+        }
+
+        // Аргументы упорядочены: блоки просматриваются одним проходом
+        double leftX = getLeftDomainBorder();
+        double rightX = getRightDomainBorder();
+        Block block = first;
+        int i = 0;
+        int steps = 0;
+        for (int k = 0; k < length; k++) {
+            double x = xs[xsOffset + k];
+            if (x < leftX || x > rightX) {
+                out[outOffset + k] = Double.NaN;
+                continue;
+            }
+            while (true) {
+                if (i + 1 < block.size) {
+                    if (block.xs[i + 1] >= x) {
+                        break;
+                    }
+                    i++;
+                } else {
+                    if (block.next == null || block.next.xs[0] >= x) {
+                        break;
+                    }
+                    block = block.next;
+                    i = 0;
+                }
+                steps++;
+            }
+            out[outOffset + k] = interpolate(block, i, x);
+        }
+        FunctionInstrumentation.recordEvaluations(length);
+        FunctionInstrumentation.recordSearchSteps(steps);
+    }
+
+    // Проверка, что аргументы идут по неубыванию (NaN нарушает порядок)
+    private static boolean isSorted(double[] xs, int offset, int length) {
+        for (int k = offset + 1; k < offset + length; k++) {
+            if (!(xs[k - 1] <= xs[k])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getPointsCount() {
+        return pointsCount;
+    }
+
+    public FunctionPoint getPoint(int index) {
+        AccessCache at = locate(index);
+        int i = index - at.start;
+        return new FunctionPoint(at.block.xs[i], at.block.ys[i]);
+    }
+
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        AccessCache at = locate(index);
+        Block block = at.block;
+        int i = index - at.start;
+        checkOrder(block, i, point.getX());
+        block.xs[i] = point.getX();
+        block.ys[i] = point.getY();
+    }
+
+    public double getPointX(int index) {
+        AccessCache at = locate(index);
+        return at.block.xs[index - at.start];
+    }
+
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        AccessCache at = locate(index);
+        Block block = at.block;
+        int i = index - at.start;
+        checkOrder(block, i, x);
+        block.xs[i] = x;
+    }
+
+    public double getPointY(int index) {
+        AccessCache at = locate(index);
+        return at.block.ys[index - at.start];
+    }
+
+    public void setPointY(int index, double y) {
+        AccessCache at = locate(index);
+        at.block.ys[index - at.start] = y;
+    }
+
+    // Обход и выгрузка точек поблочно
+
+    public void forEachPoint(PointConsumer consumer) {
+        for (Block block = first; block != null; block = block.next) {
+            for (int i = 0; i < block.size; i++) {
+                consumer.accept(block.xs[i], block.ys[i]);
+            }
+        }
+    }
+
+    public PointCursor cursor() {
+        return new PointCursor() {
+            private Block block;
+            private int i = -1;
+
+            public boolean next() {
+                if (block == null) {
+                    block = first;
+                    i = 0;
+                    return true;
+                }
+                if (i + 1 < block.size) {
+                    i++;
+                    return true;
+                }
+                if (block.next == null) {
+                    return false;
+                }
+                block = block.next;
+                i = 0;
+                return true;
+            }
+
+            public double getX() {
+                return block.xs[i];
+            }
+
+            public double getY() {
+                return block.ys[i];
+            }
+
+            public void reset() {
+                block = null;
+                i = -1;
+            }
+        };
+    }
+
+    public void copyXs(double[] dest, int destOffset) {
+        if (destOffset < 0 || destOffset > dest.length - pointsCount) {
+            throw new IndexOutOfBoundsException("Массив слишком мал для " + pointsCount + " точек");
+        }
+        for (Block block = first; block != null; block = block.next) {
+            System.arraycopy(block.xs, 0, dest, destOffset, block.size);
+            destOffset += block.size;
+        }
+    }
+
+    public void copyYs(double[] dest, int destOffset) {
+        if (destOffset < 0 || destOffset > dest.length - pointsCount) {
+            throw new IndexOutOfBoundsException("Массив слишком мал для " + pointsCount + " точек");
+        }
+        for (Block block = first; block != null; block = block.next) {
+            System.arraycopy(block.ys, 0, dest, destOffset, block.size);
+            destOffset += block.size;
+        }
+    }
+
+    public void deletePoint(int index) {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException(index);
+        }
+        if (pointsCount < 3) {
+            throw new IllegalStateException("Нельзя удалить точку: должно остаться минимум 2 точки");
+        }
+
+        AccessCache at = locate(index);
+        Block block = at.block;
+        int i = index - at.start;
+        System.arraycopy(block.xs, i + 1, block.xs, i, block.size - i - 1);
+        System.arraycopy(block.ys, i + 1, block.ys, i, block.size - i - 1);
+        block.size--;
+
+        // Пустой блок удаляется, малозаполненный сливается с соседним, если они умещаются в один
+        if (block.size == 0) {
+            unlink(block);
+        } else if (block.size < blockSize / 4) {
+            if (block.next != null && block.size + block.next.size <= blockSize) {
+                mergeWithNext(block);
+            } else if (block.prev != null && block.prev.size + block.size <= blockSize) {
+                mergeWithNext(block.prev);
+            }
+        }
+
+        pointsCount--;
+        modCount++;
+        FunctionInstrumentation.recordDeletion();
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        double x = point.getX();
+        Block block = findBlock(x).block;
+        int position = lowerBound(block, x);
+
+        double next = Double.NaN;
+        if (position < block.size) {
+            next = block.xs[position];
+        } else if (block.next != null) {
+            next = block.next.xs[0];
+        }
+        if (doubleEquals(next, x)) {
+            throw new InappropriateFunctionPointException("Точка с таким X уже существует");
+        }
+
+        // Вставка затрагивает только свой блок; заполненный блок сначала делится
+        if (block.size == blockSize) {
+            Block right = split(block);
+            if (position > block.size) {
+                position -= block.size;
+                block = right;
+            }
+        }
+        System.arraycopy(block.xs, position, block.xs, position + 1, block.size - position);
+        System.arraycopy(block.ys, position, block.ys, position + 1, block.size - position);
+        block.xs[position] = x;
+        block.ys[position] = point.getY();
+        block.size++;
+
+        pointsCount++;
+        modCount++;
+        FunctionInstrumentation.recordInsertions(1);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("UnrolledLinkedListTabulatedFunction [pointsCount=").append(pointsCount)
+                .append(", blockSize=").append(blockSize).append("]\n");
+        int index = 0;
+        for (Block block = first; block != null; block = block.next) {
+            for (int i = 0; i < block.size; i++) {
+                sb.append(String.format("  [%d] x=%.3f, y=%.3f%n", index, block.xs[i], block.ys[i]));
+                index++;
+            }
+        }
+        return sb.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package functions.meta;
+
+import functions.Function;
+
+public class Composition implements Function {
+    // Композиция f(g(x)), вычисляемая при обращении. Там, где значение g выходит
+    // за область определения f, результат равен NaN
+    private final Function f;
+    private final Function g;
+
+    public Composition(Function f, Function g) {
+        this.f = f;
+        this.g = g;
+    }
+
+    public double getLeftDomainBorder() {
+        return g.getLeftDomainBorder();
+    }
+
+    public double getRightDomainBorder() {
+        return g.getRightDomainBorder();
+    }
+
+    public double getFunctionValue(double x) {
+        return f.getFunctionValue(g.getFunctionValue(x));
+    }
+
+    // Значения g вычисляются во временный массив и затем передаются в f одним пакетом
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        if (xsOffset < 0 || outOffset < 0 || length < 0 ||
+                xsOffset > xs.length - length || outOffset > out.length - length) {
+            throw new IndexOutOfBoundsException("Диапазон выходит за границы массива");
+        }
+        double[] gValues = new double[length];
+        g.getFunctionValues(xs, xsOffset, gValues, 0, length);
+        f.getFunctionValues(gValues, 0, out, outOffset, length);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package functions.meta;
+
+import functions.Function;
+
+public class Product implements Function {
+    // Произведение f * g, вычисляемое при обращении. Между точками таблиц оно не
+    // линейно, поэтому в отличие от TabulatedFunctions.multiply здесь нет погрешности
+    private final Function f;
+    private final Function g;
+
+    public Product(Function f, Function g) {
+        this.f = f;
+        this.g = g;
+    }
+
+    // Область определения - пересечение областей определения f и g
+    public double getLeftDomainBorder() {
+        return Math.max(f.getLeftDomainBorder(), g.getLeftDomainBorder());
+    }
+
+    public double getRightDomainBorder() {
+        return Math.min(f.getRightDomainBorder(), g.getRightDomainBorder());
+    }
+
+    // Вне пересечения одна из функций дает NaN, и результат тоже NaN
+    public double getFunctionValue(double x) {
+        return f.getFunctionValue(x) * g.getFunctionValue(x);
+    }
+
+    // Значения f и g вычисляются пакетами и затем перемножаются
+    public void getFunctionValues(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        if (xsOffset < 0 || outOffset < 0 || length < 0 ||
+                xsOffset > xs.length - length || outOffset > out.length - length) {
+            throw new IndexOutOfBoundsException("Диапазон выходит за границы массива");
+        }
+        f.getFunctionValues(xs, xsOffset, out, outOffset, length);
+        double[] gValues = new double[length];
+        g.getFunctionValues(xs, xsOffset, gValues, 0, length);
+        for (int k = 0; k < length; k++) {
+            out[outOffset + k] *= gValues[k];
+        }
+    }
+}
\ No newline at end of file
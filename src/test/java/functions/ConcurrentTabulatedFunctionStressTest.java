@@ -0,0 +1,169 @@
+package functions;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ConcurrentTabulatedFunctionStressTest {
+    // Нагрузочный тест ConcurrentTabulatedFunction: пять читателей и один писатель,
+    // который добавляет, удаляет и изменяет точки. Все точки лежат на прямой y = 2x,
+    // поэтому любое прочитанное значение проверяется точно (коэффициент не равен 1,
+    // чтобы повторное применение функции к результату было заметно). Допустимое исключение
+    // читателя - только выход номера точки за границы из-за удаления между
+    // getPointsCount и getPoint; любое другое исключение или неверное значение - ошибка
+    private static final int READERS_COUNT = 5;
+    private static final int WRITER_OPERATIONS = 50_000;
+    private static final double LEFT_X = 0;
+    private static final double RIGHT_X = 1000;
+    private static final double SLOPE = 2;
+    private static final double TOLERANCE = 1e-9;
+
+    public static void main(String[] args) throws InterruptedException {
+        run("array", new ArrayTabulatedFunction(LEFT_X, RIGHT_X, line(101)), true);
+        run("linkedList", new LinkedListTabulatedFunction(LEFT_X, RIGHT_X, line(101)), true);
+        run("skipList", new SkipListTabulatedFunction(LEFT_X, RIGHT_X, line(101)), true);
+        run("unrolledList", new UnrolledLinkedListTabulatedFunction(LEFT_X, RIGHT_X, line(101)), true);
+        // Отклонение от прямой порядка 1e-12 заставляет читателей постоянно уточнять
+        // таблицу и вытеснять точки, не выходя за допуск проверки. Номера точек при
+        // этом сдвигают и читатели, поэтому писатель не изменяет точки по номеру
+        run("adaptive", new AdaptiveTabulatedFunction(x -> SLOPE * x + 1e-12 * Math.sin(1000 * x),
+                LEFT_X, RIGHT_X, 101, 2000, 1e-14), false);
+        System.out.println("OK");
+    }
+
+    // Значения y = 2x на равномерной сетке
+    private static double[] line(int pointsCount) {
+        double[] values = new double[pointsCount];
+        double step = (RIGHT_X - LEFT_X) / (pointsCount - 1);
+        for (int i = 0; i < pointsCount; i++) {
+            values[i] = SLOPE * (LEFT_X + i * step);
+        }
+        return values;
+    }
+
+    private static void run(String name, TabulatedFunction target, boolean stableIndices)
+            throws InterruptedException {
+        ConcurrentTabulatedFunction function = new ConcurrentTabulatedFunction(target);
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread[] readers = new Thread[READERS_COUNT];
+        for (int t = 0; t < READERS_COUNT; t++) {
+            readers[t] = new Thread(() -> {
+                try {
+                    while (!stop.get() && failure.get() == null) {
+                        read(function);
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            readers[t].start();
+        }
+
+        Thread writer = new Thread(() -> {
+            try {
+                for (int k = 0; k < WRITER_OPERATIONS && failure.get() == null; k++) {
+                    write(function, stableIndices);
+                }
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                stop.set(true);
+            }
+        });
+        writer.start();
+        writer.join();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        if (failure.get() != null) {
+            throw new AssertionError(name + ": " + failure.get(), failure.get());
+        }
+        check(function);
+        System.out.println(name + ": " + function.getPointsCount() + " точек");
+    }
+
+    private static void read(TabulatedFunction function) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double x = LEFT_X + random.nextDouble() * (RIGHT_X - LEFT_X);
+        expect(function.getFunctionValue(x), SLOPE * x, "getFunctionValue");
+
+        double[] xs = new double[16];
+        double[] out = new double[16];
+        for (int k = 0; k < xs.length; k++) {
+            xs[k] = LEFT_X + (RIGHT_X - LEFT_X) * (k + random.nextDouble()) / xs.length;
+        }
+        function.getFunctionValues(xs, 0, out, 0, xs.length);
+        for (int k = 0; k < xs.length; k++) {
+            expect(out[k], SLOPE * xs[k], "getFunctionValues");
+        }
+
+        // Вычисление на месте: результаты записываются поверх аргументов
+        function.getFunctionValues(xs, 0, xs, 0, xs.length);
+        for (int k = 0; k < xs.length; k++) {
+            expect(xs[k], out[k], "getFunctionValues на месте");
+        }
+
+        expect(function.getLeftDomainBorder(), LEFT_X, "getLeftDomainBorder");
+        expect(function.getRightDomainBorder(), RIGHT_X, "getRightDomainBorder");
+
+        try {
+            FunctionPoint point = function.getPoint(random.nextInt(function.getPointsCount()));
+            expect(point.getY(), SLOPE * point.getX(), "getPoint");
+        } catch (FunctionPointIndexOutOfBoundsException e) {
+            // Точку удалили между getPointsCount и getPoint
+        }
+    }
+
+    // Писатель единственный, поэтому при stableIndices номера точек между его вызовами
+    // не меняются. Иначе используются только операции из одного вызова: удаление
+    // внутренней точки остается допустимым, так как читатели число точек не уменьшают
+    private static void write(TabulatedFunction function, boolean stableIndices)
+            throws InappropriateFunctionPointException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int count = function.getPointsCount();
+        int operation = random.nextInt(4);
+        if (operation == 0 || count < 50) {
+            double x = LEFT_X + random.nextDouble() * (RIGHT_X - LEFT_X);
+            try {
+                function.addPoint(new FunctionPoint(x, SLOPE * x));
+            } catch (InappropriateFunctionPointException e) {
+                // Точка с таким X уже есть
+            }
+        } else if (operation == 1 && count > 2) {
+            // Крайние точки не удаляются, чтобы область определения не менялась
+            function.deletePoint(1 + random.nextInt(count - 2));
+        } else if (!stableIndices) {
+            return;
+        } else if (operation == 2) {
+            int index = random.nextInt(count);
+            function.setPointY(index, SLOPE * function.getPointX(index));
+        } else if (count > 2) {
+            // Сдвиг внутренней точки вместе с Y, чтобы она осталась на прямой
+            int index = 1 + random.nextInt(count - 2);
+            double left = function.getPointX(index - 1);
+            double right = function.getPointX(index + 1);
+            double x = left + (right - left) * (0.25 + random.nextDouble() / 2);
+            function.setPoint(index, new FunctionPoint(x, SLOPE * x));
+        }
+    }
+
+    // Итоговое состояние: X строго возрастают, все точки на прямой
+    private static void check(TabulatedFunction function) {
+        int count = function.getPointsCount();
+        for (int i = 0; i < count; i++) {
+            expect(function.getPointY(i), SLOPE * function.getPointX(i), "getPointY");
+            if (i > 0 && !(function.getPointX(i) > function.getPointX(i - 1))) {
+                throw new AssertionError("Нарушение порядка точек по X в точке " + i);
+            }
+        }
+    }
+
+    private static void expect(double actual, double expected, String method) {
+        if (!(Math.abs(actual - expected) <= TOLERANCE * Math.max(1, Math.abs(expected)))) {
+            throw new AssertionError(method + ": ожидалось " + expected + ", получено " + actual);
+        }
+    }
+}
\ No newline at end of file